@@ -0,0 +1,19 @@
+#!/bin/bash
+echo "Benchmarks JMH du simulateur motorola..."
+echo
+
+cd "$(dirname "$0")"
+
+mvn -B -q package
+if [ $? -ne 0 ]; then
+    echo
+    echo "Erreur lors de la compilation des benchmarks!"
+    exit 1
+fi
+
+# Un fichier de résultats par révision pour suivre les régressions
+mkdir -p results
+REVISION=$(git rev-parse --short HEAD 2>/dev/null || echo "local")
+
+# Arguments supplémentaires transmis à JMH (ex: LoopBenchmark -p engine=JIT)
+java -jar target/benchmarks.jar -rf json -rff "results/$REVISION.json" "$@"
@@ -0,0 +1,75 @@
+package motorola.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import motorola.assembler.Assembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Assemblage de sources synthétiques de 1k à 100k lignes
+ *
+ * Les sources mélangent les modes d'adressage, des labels et des branchements ;
+ * elles sont générées avec une graine fixe et sont donc identiques d'une
+ * exécution à l'autre.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 3, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class AssemblerBenchmark {
+
+    // Un label tous les LABEL_INTERVAL lignes, cible des branchements suivants
+    private static final int LABEL_INTERVAL = 50;
+
+    @Param({ "1000", "10000", "100000" })
+    public int lines;
+
+    private String[] source;
+
+    @Setup
+    public void setup() {
+        source = generate(lines, new Random(Programs.SEED));
+    }
+
+    @Benchmark
+    public byte[] assemble() {
+        // Nouvel assembleur à chaque fois : la table des labels n'est pas réutilisable
+        return new Assembler().assemble(source);
+    }
+
+    static String[] generate(int count, Random random) {
+        String[] result = new String[count];
+        int label = 0;
+        for (int i = 0; i < count; i++) {
+            if (i % LABEL_INTERVAL == 0) {
+                result[i] = "L" + (label++) + ":";
+                continue;
+            }
+            switch (random.nextInt(10)) {
+                case 0:  result[i] = String.format("LDA #$%02X;", random.nextInt(256)); break;
+                case 1:  result[i] = String.format("ADDA $%02X;", random.nextInt(256)); break;
+                case 2:  result[i] = String.format("STA $%04X;", 0x1000 + random.nextInt(0x1000)); break;
+                case 3:  result[i] = String.format("LDX #$%04X;", random.nextInt(0x10000)); break;
+                case 4:  result[i] = String.format("LDB %d,X;", random.nextInt(16) - 8); break;
+                case 5:  result[i] = String.format("LDB $%02X,Y;", 0x20 + random.nextInt(0x60)); break;
+                case 6:  result[i] = "SUBB #$01;"; break;
+                case 7:  result[i] = String.format("CMPA #$%02X;", random.nextInt(256)); break;
+                case 8:  result[i] = "LDA [,X];"; break;
+                default: result[i] = "BNE L" + (label - 1) + ";"; break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package motorola.bench;
+
+import java.util.concurrent.TimeUnit;
+import motorola.cpu.CPU;
+import motorola.decoder.InstructionDecoder;
+import motorola.instructions.Instruction;
+import motorola.memory.Memory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Coût d'une instruction isolée, par mode d'adressage :
+ * - execute : CPU.executeInstruction() complet (cache de prédécodage chaud)
+ * - decode  : InstructionDecoder.decode() seul
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms512m", "-Xmx512m" })
+public class DispatchBenchmark {
+
+    // Adresse du pointeur lu par le mode étendu indirect
+    private static final int POINTER = 0x1234;
+
+    @Param({ "INHERENT", "IMMEDIATE", "DIRECT", "EXTENDED", "EXTENDED_INDIRECT", "INDEXED", "RELATIVE", "PAGE2" })
+    public String mode;
+
+    private Memory memory;
+    private CPU cpu;
+    private int opcode;
+
+    @Setup
+    public void setup() {
+        memory = new Memory();
+        cpu = new CPU(memory);
+
+        byte[] code;
+        switch (mode) {
+            case "INHERENT":          code = Programs.bytes(0x12);                   break; // NOP
+            case "IMMEDIATE":         code = Programs.bytes(0x86, 0x42);             break; // LDA #$42
+            case "DIRECT":            code = Programs.bytes(0x96, 0x40);             break; // LDA $40
+            case "EXTENDED":          code = Programs.bytes(0xB6, 0x12, 0x34);       break; // LDA $1234
+            case "EXTENDED_INDIRECT": code = Programs.bytes(0x04, 0xB6, 0x12, 0x34); break; // LDA [$1234]
+            case "INDEXED":           code = Programs.bytes(0xA6, 0x05);             break; // LDA 5,X
+            case "RELATIVE":          code = Programs.bytes(0x20, 0x00);             break; // BRA *+2
+            case "PAGE2":             code = Programs.bytes(0x10, 0xCE, 0x20, 0x00); break; // LDY #$2000
+            default: throw new IllegalArgumentException(mode);
+        }
+        memory.loadProgram(code, 0);
+        memory.writeWord(POINTER, 0x2000);
+        cpu.setRegX(0x3000);
+        opcode = code[0] & 0xFF;
+    }
+
+    @Benchmark
+    public int execute() {
+        cpu.setRegPC(0);
+        cpu.executeInstruction();
+        return cpu.getRegPC();
+    }
+
+    @Benchmark
+    public Instruction decode() {
+        // PC sur l'octet qui suit l'opcode, comme après le fetch de executeInstruction()
+        cpu.setRegPC(1);
+        return InstructionDecoder.decode(opcode, cpu);
+    }
+}
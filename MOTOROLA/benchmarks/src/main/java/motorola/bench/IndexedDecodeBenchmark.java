@@ -0,0 +1,69 @@
+package motorola.bench;
+
+import java.util.concurrent.TimeUnit;
+import motorola.addressing.AddressingMode;
+import motorola.cpu.CPU;
+import motorola.memory.Memory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Décodage d'un postbyte indexé par AddressingMode.indexedGeneric(),
+ * pour chaque forme de postbyte reconnue par le simulateur
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms512m", "-Xmx512m" })
+public class IndexedDecodeBenchmark {
+
+    private static final int CODE = 0x0100;
+    private static final int BASE = 0x2000;
+
+    @Param({ "OFFSET4", "OFFSET8", "OFFSET16", "ACCUMULATOR", "POST_INC", "POST_INC2",
+             "PRE_DEC", "PRE_DEC2", "INDIRECT" })
+    public String postbyte;
+
+    private CPU cpu;
+
+    @Setup
+    public void setup() {
+        Memory memory = new Memory();
+        cpu = new CPU(memory);
+
+        byte[] code;
+        switch (postbyte) {
+            case "OFFSET4":     code = Programs.bytes(0x05);             break; // 5,X
+            case "OFFSET8":     code = Programs.bytes(0x18, 0x40);       break; // $40,X
+            case "OFFSET16":    code = Programs.bytes(0x19, 0x12, 0x34); break; // $1234,X
+            case "ACCUMULATOR": code = Programs.bytes(0x16);             break; // A,X
+            case "POST_INC":    code = Programs.bytes(0x10);             break; // ,X+
+            case "POST_INC2":   code = Programs.bytes(0x11);             break; // ,X++
+            case "PRE_DEC":     code = Programs.bytes(0x1F);             break; // ,-X
+            case "PRE_DEC2":    code = Programs.bytes(0x1E);             break; // ,--X
+            case "INDIRECT":    code = Programs.bytes(0x14);             break; // [,X]
+            default: throw new IllegalArgumentException(postbyte);
+        }
+        memory.loadProgram(code, CODE);
+        memory.writeWord(BASE, 0x3000);
+        cpu.setAccA(0x10);
+    }
+
+    @Benchmark
+    public int decode() {
+        cpu.setRegPC(CODE);
+        cpu.setRegX(BASE);
+        return AddressingMode.indexedGeneric(cpu);
+    }
+}
@@ -0,0 +1,75 @@
+package motorola.bench;
+
+import java.util.concurrent.TimeUnit;
+import motorola.cpu.CPU;
+import motorola.memory.Memory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Boucles serrées complètes (memcpy, checksum, tri à bulles) exécutées par
+ * Debugger.run() jusqu'au HALT, pour chaque moteur d'exécution :
+ * - INTERPRETER : executeInstruction() avec cache de prédécodage
+ * - BLOCKS      : blocs de base traduits, sans JIT
+ * - JIT         : blocs de base compilés en bytecode dès la première exécution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 3, jvmArgsAppend = { "-Xms512m", "-Xmx512m" })
+public class LoopBenchmark {
+
+    // Garde-fou si un programme ne s'arrête pas
+    private static final long INSTRUCTION_LIMIT = 10_000_000L;
+
+    @Param({ "MEMCPY", "CHECKSUM", "BUBBLE_SORT" })
+    public String program;
+
+    @Param({ "INTERPRETER", "BLOCKS", "JIT" })
+    public String engine;
+
+    private Memory memory;
+    private CPU cpu;
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        memory = new Memory();
+        cpu = new CPU(memory);
+
+        byte[] code;
+        switch (program) {
+            case "MEMCPY":      code = Programs.MEMCPY;      data = Programs.randomData(256); break;
+            case "CHECKSUM":    code = Programs.CHECKSUM;    data = Programs.randomData(256); break;
+            case "BUBBLE_SORT": code = Programs.BUBBLE_SORT; data = Programs.randomData(Programs.SORT_SIZE); break;
+            default: throw new IllegalArgumentException(program);
+        }
+        memory.loadProgram(code, 0);
+
+        cpu.setBlockMode(!engine.equals("INTERPRETER"));
+        cpu.getBlockTranslator().setJitEnabled(engine.equals("JIT"));
+        cpu.getBlockTranslator().setJitThreshold(1);
+    }
+
+    @Benchmark
+    public long run() {
+        // Données remises à l'état initial : le tri travaille toujours sur la même entrée
+        memory.loadProgram(data, Programs.DATA);
+        cpu.setRegPC(0);
+        cpu.setHalted(false);
+        cpu.resetCycles();
+        cpu.getDebugger().run(INSTRUCTION_LIMIT, Long.MAX_VALUE);
+        return cpu.getCycles();
+    }
+}
@@ -0,0 +1,96 @@
+package motorola.bench;
+
+import java.util.Random;
+
+/**
+ * Programmes 6809 assemblés à la main pour les benchmarks
+ *
+ * Le code est fourni directement en octets : les adresses de labels de
+ * l'assembleur étant approximatives, les boucles sont encodées avec leurs
+ * déplacements exacts. Les données d'entrée sont tirées avec une graine fixe
+ * pour que chaque exécution mesure exactement le même travail.
+ */
+final class Programs {
+
+    // Graine commune à toutes les données générées
+    static final long SEED = 42L;
+
+    // Zone de données source / destination
+    static final int DATA = 0x1000;
+    static final int DEST = 0x2000;
+
+    private Programs() {
+    }
+
+    /**
+     * Copie 256 octets de $1000 vers $2000
+     */
+    static final byte[] MEMCPY = bytes(
+        0x8E, 0x10, 0x00,        //       LDX  #$1000
+        0x10, 0xCE, 0x20, 0x00,  //       LDY  #$2000
+        0xC6, 0x00,              //       LDB  #0        (256 tours)
+        0xA6, 0x10,              // LOOP: LDA  ,X+
+        0xA7, 0x50,              //       STA  ,Y+
+        0xC0, 0x01,              //       SUBB #1
+        0x26, 0xF8,              //       BNE  LOOP
+        0x3F                     //       HALT
+    );
+
+    /**
+     * Somme sur 8 bits des 256 octets à partir de $1000, rangée en $40
+     */
+    static final byte[] CHECKSUM = bytes(
+        0x8E, 0x10, 0x00,        //       LDX  #$1000
+        0x86, 0x00,              //       LDA  #0
+        0xC6, 0x00,              //       LDB  #0        (256 tours)
+        0xAB, 0x10,              // LOOP: ADDA ,X+
+        0xC0, 0x01,              //       SUBB #1
+        0x26, 0xFA,              //       BNE  LOOP
+        0x97, 0x40,              //       STA  $40
+        0x3F                     //       HALT
+    );
+
+    // Nombre d'octets triés par BUBBLE_SORT
+    static final int SORT_SIZE = 32;
+
+    /**
+     * Tri à bulles non signé des 32 octets à partir de $1000
+     * ($50 = échange effectué, $51 = compteur de la passe)
+     */
+    static final byte[] BUBBLE_SORT = bytes(
+        0x8E, 0x10, 0x00,        // PASS: LDX  #$1000
+        0x86, SORT_SIZE - 1,     //       LDA  #31
+        0x97, 0x51,              //       STA  $51
+        0x0F, 0x50,              //       CLR  $50
+        0xA6, 0x00,              // CMP:  LDA  ,X
+        0xE6, 0x01,              //       LDB  1,X
+        0xA1, 0x01,              //       CMPA 1,X
+        0x23, 0x06,              //       BLS  NEXT
+        0xE7, 0x00,              //       STB  ,X
+        0xA7, 0x01,              //       STA  1,X
+        0x0C, 0x50,              //       INC  $50
+        0x30, 0x01,              // NEXT: LEAX 1,X
+        0x0A, 0x51,              //       DEC  $51
+        0x26, 0xEC,              //       BNE  CMP
+        0x0D, 0x50,              //       TST  $50
+        0x26, 0xDF,              //       BNE  PASS
+        0x3F                     //       HALT
+    );
+
+    /**
+     * Données d'entrée reproductibles
+     */
+    static byte[] randomData(int size) {
+        byte[] data = new byte[size];
+        new Random(SEED).nextBytes(data);
+        return data;
+    }
+
+    static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}
@@ -1,7 +1,9 @@
 package motorola.addressing;
 
 import motorola.cpu.CPU;
+import motorola.cpu.CycleTable;
 import motorola.memory.Memory;
+import motorola.trace.Trace;
 
 /**
  * Classe utilitaire pour calculer les adresses selon les différents modes d'adressage
@@ -30,10 +32,10 @@ public class AddressingMode {
     public static int extendedIndirect(CPU cpu, Memory memory) {
         // Récupère l'adresse (16-bit)
         int addressOfAddress = cpu.fetchWord();
-        //System.out.println("DEBUG AddressingMode.extendedIndirect: pointer address=0x" + String.format("%04X", addressOfAddress));
         // Utilise cette adresse comme pointeur pour récupérer l'adresse finale
         int finalAddress = memory.readWord(addressOfAddress);
-        //System.out.println("DEBUG AddressingMode.extendedIndirect: final address=0x" + String.format("%04X", finalAddress));
+        cpu.addCycles(CycleTable.EXTENDED_INDIRECT);
+        if (Trace.ADDRESSING) Trace.record(Trace.CAT_ADDRESSING, Trace.EV_INDIRECT, cpu.getRegPC(), addressOfAddress, finalAddress);
         return finalAddress & 0xFFFF;
     }
 
@@ -80,24 +82,12 @@ public class AddressingMode {
     public static int indexedGeneric(CPU cpu) {
         int postbyte = cpu.fetchByte();
         int regIndex = (postbyte >> 6) & 0x03;  // Extraire RR (bits 7-6)
-<<<<<<< HEAD
 
-=======
-        
->>>>>>> a69904c8d5e432dba767b3ba7378ddf4d7cd8327
-        int regValue;
-        switch (regIndex) {
-            case 0: regValue = cpu.getRegX(); break;
-            case 1: regValue = cpu.getRegY(); break;
-            case 2: regValue = cpu.getRegU(); break;
-            case 3: regValue = cpu.getRegS(); break;
-            default: regValue = cpu.getRegX();
-        }
-<<<<<<< HEAD
+        // RR suit l'ordre des codes CPU : X, Y, U, S à partir de REG_X
+        int regValue = cpu.readRegister(CPU.REG_X + regIndex);
 
         int address = decodeIndexedAddress(cpu, postbyte, regValue, regIndex);
-        System.out.printf("DEBUG indexedGeneric: postbyte=0x%02X, regIndex=%d, regValue=0x%04X, calculated_address=0x%04X\n", 
-            postbyte, regIndex, regValue, address);
+        if (Trace.ADDRESSING) Trace.record(Trace.CAT_ADDRESSING, Trace.EV_INDEXED, cpu.getRegPC(), postbyte, address);
 
         // Si le postbyte indique un mode indirect indexé sans offset ([,X]) ou avec offset
         // (E bit = 1 and mode nibble == 0x04 for no-offset indirect), alors déréférencer
@@ -107,22 +97,18 @@ public class AddressingMode {
         if (isIndirectOrSpecial && mode == 0x04) {
             // Lire le mot pointeur à l'adresse indexée
             int finalAddr = cpu.getMemory().readWord(address) & 0xFFFF;
-            System.out.printf("DEBUG indexedGeneric: indirect indexed -> pointer at 0x%04X = 0x%04X\n", address, finalAddr);
+            cpu.addCycles(CycleTable.INDEXED_INDIRECT);
+            if (Trace.ADDRESSING) Trace.record(Trace.CAT_ADDRESSING, Trace.EV_INDIRECT, cpu.getRegPC(), address, finalAddr);
             return finalAddr;
         }
 
-=======
-        
-        int address = decodeIndexedAddress(cpu, postbyte, regValue, regIndex);
-        System.out.printf("DEBUG indexedGeneric: postbyte=0x%02X, regIndex=%d, regValue=0x%04X, calculated_address=0x%04X\n", 
-            postbyte, regIndex, regValue, address);
->>>>>>> a69904c8d5e432dba767b3ba7378ddf4d7cd8327
         return address;
     }
     
     /**
      * Décode le postbyte d'adressage indexé 6809
      * regIndex: 0=X, 1=Y, 2=U, 3=S, 4=PC
+     * Ajoute au CPU les cycles supplémentaires du mode indexé (fiche MC6809)
      */
     private static int decodeIndexedAddress(CPU cpu, int postbyte, int regValue, int regIndex) {
         // Format 6809: RR|I|BBBBB (bits 7-6: RR, bit 4: I, bits 3-0: BBBBB)
@@ -140,6 +126,7 @@ public class AddressingMode {
             // Mode accumulator: A,X=0x96, B,X=0x95, A,Y=0xB6, B,Y=0xB5, etc.
             int accum = (postbyte & 0x0F) == 0x06 ? cpu.getAccA() : cpu.getAccB();
             address = (regValue + accum) & 0xFFFF;
+            cpu.addCycles(1);
             return address;
         }
         
@@ -151,6 +138,7 @@ public class AddressingMode {
             // System.out.printf("DEBUG AddressingMode.decodeIndexedAddress: postbyte=0x%02X, off4_raw=0x%02X, off4_signed=%d, regValue=0x%04X\n", 
             //     postbyte, postbyte & 0x0F, off4, regValue);
             address = (regValue + off4) & 0xFFFF;
+            cpu.addCycles(1);
             // System.out.printf("DEBUG AddressingMode.decodeIndexedAddress: final address=0x%04X\n", address);
         } else {
             // I=1: bits 3-0 indiquent le mode spécial
@@ -160,23 +148,28 @@ public class AddressingMode {
                 case 0x00: // RR|1|0000 = Post-increment R+
                     address = regValue & 0xFFFF;
                     updateRegister(cpu, regIndex, (regValue + 1) & 0xFFFF);
+                    cpu.addCycles(2);
                     break;
                 case 0x01: // RR|1|0001 = Post-increment R++
                     address = regValue & 0xFFFF;
                     updateRegister(cpu, regIndex, (regValue + 2) & 0xFFFF);
+                    cpu.addCycles(3);
                     break;
                 case 0x0E: // RR|1|1110 = Pre-decrement --R
                     updateRegister(cpu, regIndex, (regValue - 2) & 0xFFFF);
                     address = (regValue - 2) & 0xFFFF;
+                    cpu.addCycles(3);
                     break;
                 case 0x0F: // RR|1|1111 = Pre-decrement -R
                     updateRegister(cpu, regIndex, (regValue - 1) & 0xFFFF);
                     address = (regValue - 1) & 0xFFFF;
+                    cpu.addCycles(2);
                     break;
                 case 0x08: // RR|1|1000 = 8-bit offset
                     int off8 = cpu.fetchByte();
                     if ((off8 & 0x80) != 0) off8 |= 0xFFFFFF00; // Sign-extend
                     address = (regValue + off8) & 0xFFFF;
+                    cpu.addCycles(1);
                     break;
                 case 0x09: // RR|1|1001 = 16-bit offset
                     int hi = cpu.fetchByte();
@@ -184,6 +177,7 @@ public class AddressingMode {
                     int off16 = ((hi << 8) | lo) & 0xFFFF;
                     if ((off16 & 0x8000) != 0) off16 |= 0xFFFF0000; // Sign-extend
                     address = (regValue + off16) & 0xFFFF;
+                    cpu.addCycles(regIndex == 4 ? 5 : 4);  // n16,PCR : 5 cycles
                     break;
                 default:
                     address = regValue & 0xFFFF;
@@ -194,12 +188,7 @@ public class AddressingMode {
     }
     
     private static void updateRegister(CPU cpu, int regIndex, int value) {
-        switch (regIndex) {
-            case 0: cpu.setRegX(value); break;
-            case 1: cpu.setRegY(value); break;
-            case 2: cpu.setRegU(value); break;
-            case 3: cpu.setRegS(value); break;
-            case 4: cpu.setRegPC(value); break;
-        }
+        // regIndex 0..4 = X, Y, U, S, PC : mêmes rangs que REG_X..REG_PC
+        cpu.writeRegister(CPU.REG_X + regIndex, value);
     }
 }
@@ -0,0 +1,178 @@
+package motorola.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import motorola.cpu.BatchExecutor;
+import motorola.cpu.Machine;
+
+/**
+ * Exécution en parallèle de nombreux programmes indépendants (corrections,
+ * non-régression), une machine par programme et un thread par cœur
+ *
+ * Usage : java -cp bin motorola.cli.BatchRunner [options] fichier...
+ *
+ *   fichier                  source assembleur, ou binaire brut si extension .bin
+ *   --binary                 force le chargement en binaire brut
+ *   --load ADDR              adresse de chargement (défaut $0000)
+ *   --max-instructions N     arrêt après N instructions (défaut 100 000 000)
+ *   --max-cycles N           arrêt après N cycles émulés
+ *   --blocks                 exécution par blocs de base traduits
+ *   --no-jit                 en mode blocs, désactive la compilation en bytecode
+ *   --threads N              nombre de threads (défaut : nombre de cœurs)
+ *
+ * Une ligne par programme, dans l'ordre où ils se terminent, puis un bilan.
+ * Code de sortie : 0 si tous ont atteint HALT, 2 si certains ont été
+ * arrêtés autrement, 1 en cas d'erreur.
+ */
+public class BatchRunner {
+
+    // Un programme qui boucle ne doit pas bloquer un thread indéfiniment
+    public static final long DEFAULT_MAX_INSTRUCTIONS = 100_000_000L;
+
+    private final List<Path> files = new ArrayList<>();
+    private boolean binary;
+    private int loadAddress;
+    private long maxInstructions = DEFAULT_MAX_INSTRUCTIONS;
+    private long maxCycles = Long.MAX_VALUE;
+    private boolean blockMode;
+    private boolean jitEnabled = true;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    public static void main(String[] args) {
+        BatchRunner runner = new BatchRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            printUsage();
+            System.exit(HeadlessRunner.EXIT_ERROR);
+        }
+
+        try {
+            System.exit(runner.run());
+        } catch (InterruptedException e) {
+            System.err.println("Exécution interrompue");
+            System.exit(HeadlessRunner.EXIT_ERROR);
+        }
+    }
+
+    // =======================
+    // ===== ARGUMENTS =======
+    // =======================
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--binary":
+                    binary = true;
+                    break;
+                case "--load":
+                    loadAddress = HeadlessRunner.parseAddress(HeadlessRunner.next(args, ++i, arg));
+                    break;
+                case "--max-instructions":
+                    maxInstructions = HeadlessRunner.parseCount(HeadlessRunner.next(args, ++i, arg));
+                    break;
+                case "--max-cycles":
+                    maxCycles = HeadlessRunner.parseCount(HeadlessRunner.next(args, ++i, arg));
+                    break;
+                case "--blocks":
+                    blockMode = true;
+                    break;
+                case "--no-jit":
+                    jitEnabled = false;
+                    break;
+                case "--threads":
+                    long count = HeadlessRunner.parseCount(HeadlessRunner.next(args, ++i, arg));
+                    if (count < 1 || count > 1024) {
+                        throw new IllegalArgumentException("nombre de threads invalide : " + count);
+                    }
+                    threads = (int) count;
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("option inconnue " + arg);
+                    }
+                    files.add(Paths.get(arg));
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("aucun fichier");
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage : java -cp bin motorola.cli.BatchRunner [options] fichier...");
+        System.err.println("  --binary  --load ADDR  --max-instructions N  --max-cycles N");
+        System.err.println("  --blocks  --no-jit  --threads N");
+    }
+
+    // =======================
+    // ===== EXÉCUTION =======
+    // =======================
+
+    private int run() throws InterruptedException {
+        // Lecture et assemblage sur ce thread, avant le lancement des machines ;
+        // un fichier illisible ou mal formé est compté en erreur sans arrêter le lot
+        List<BatchExecutor.Job> jobs = new ArrayList<>();
+        int errors = 0;
+        for (Path file : files) {
+            boolean raw = binary || file.toString().toLowerCase().endsWith(".bin");
+            byte[] program;
+            try {
+                program = raw ? Files.readAllBytes(file) : HeadlessRunner.assemble(file);
+            } catch (IOException | RuntimeException e) {
+                String message = e.getMessage() != null ? e.getMessage() : e.toString();
+                if (e instanceof IOException) message = "erreur de lecture (" + message + ")";
+                System.out.printf("ERREUR    %s : %s%n", file, message);
+                errors++;
+                continue;
+            }
+            if (program.length == 0) {
+                System.out.printf("ERREUR    %s : aucune instruction valide%n", file);
+                errors++;
+                continue;
+            }
+            jobs.add(new BatchExecutor.Job(file.toString(), program, loadAddress,
+                maxInstructions, maxCycles, blockMode, jitEnabled));
+        }
+
+        int[] counts = new int[3]; // halted, autres arrêts, erreurs
+        long[] totals = new long[2]; // instructions, cycles
+        long start = System.nanoTime();
+        try (BatchExecutor executor = new BatchExecutor(threads)) {
+            executor.runAll(jobs, result -> {
+                if (result.getStop() == null) {
+                    counts[2]++;
+                    System.out.printf("ERREUR    %s : %s%n", result.getName(), result.getError());
+                    return;
+                }
+                counts[result.getStop() == Machine.Stop.HALTED ? 0 : 1]++;
+                totals[0] += result.getInstructions();
+                totals[1] += result.getCycles();
+                System.out.printf("%-9s %s  %d instructions  %d cycles  %.3f ms  %s%n",
+                    result.getStop() == Machine.Stop.HALTED ? "OK" : "ARRÊT",
+                    result.getName(), result.getInstructions(), result.getCycles(),
+                    result.getElapsedNanos() / 1e6,
+                    result.getStop() == Machine.Stop.HALTED ? result.getMachine().getDebugger().getCPUState()
+                        : result.getStop().toString());
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        errors += counts[2];
+
+        System.out.println("===== BILAN =====");
+        System.out.printf("Programmes  : %d (HALT %d, arrêtés %d, erreurs %d)%n",
+            files.size(), counts[0], counts[1], errors);
+        System.out.printf("Threads     : %d%n", threads);
+        System.out.printf("Durée       : %.3f s%n", seconds);
+        System.out.printf("Débit       : %.0f instructions/s%n", seconds > 0 ? totals[0] / seconds : 0);
+
+        if (errors > 0) return HeadlessRunner.EXIT_ERROR;
+        return counts[1] > 0 ? HeadlessRunner.EXIT_LIMIT : HeadlessRunner.EXIT_HALTED;
+    }
+}
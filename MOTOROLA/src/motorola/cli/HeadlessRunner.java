@@ -0,0 +1,348 @@
+package motorola.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import motorola.assembler.Assembler;
+import motorola.cpu.CPU;
+import motorola.cpu.ClockPacer;
+import motorola.memory.DirtyLineSet;
+import motorola.memory.Memory;
+
+/**
+ * Exécution du simulateur sans interface graphique (CI, traitements par lots)
+ *
+ * Usage : java -cp bin motorola.cli.HeadlessRunner [options] fichier
+ *
+ *   fichier                  source assembleur, ou binaire brut si extension .bin
+ *   --binary                 force le chargement en binaire brut
+ *   --load ADDR              adresse de chargement (défaut $0000)
+ *   --max-instructions N     arrêt après N instructions
+ *   --max-cycles N           arrêt après N cycles émulés
+ *   --dump DEBUT:FIN         affiche la mémoire entre DEBUT et FIN (répétable)
+ *   --blocks                 exécution par blocs de base traduits
+ *   --no-jit                 en mode blocs, désactive la compilation en bytecode
+ *   --history N              affiche les N dernières instructions exécutées
+ *   --history-file FICHIER   écrit l'historique au format binaire
+ *   --watch-read ADDR[:FIN]  arrêt après une lecture dans la plage (répétable)
+ *   --watch-write ADDR[:FIN] arrêt après une écriture dans la plage (répétable)
+ *   --watch-value ADDR=VAL   arrêt quand VAL est écrite en ADDR (répétable)
+ *   --clock MHZ              vitesse réelle d'un 6809 à MHZ (1, 1.5, 2...)
+ *
+ * Les adresses acceptent $XXXX, 0xXXXX ou le décimal.
+ * Code de sortie : 0 si HALT atteint, 2 si une limite a arrêté l'exécution,
+ * 3 sur watchpoint, 1 en cas d'erreur.
+ */
+public class HeadlessRunner {
+
+    public static final int EXIT_HALTED = 0;
+    public static final int EXIT_ERROR = 1;
+    public static final int EXIT_LIMIT = 2;
+    public static final int EXIT_WATCHPOINT = 3;
+
+    private Path file;
+    private boolean binary;
+    private int loadAddress;
+    private long maxInstructions = Long.MAX_VALUE;
+    private long maxCycles = Long.MAX_VALUE;
+    private final List<int[]> dumps = new ArrayList<>();
+    private boolean blockMode;
+    private boolean jitEnabled = true;
+    private int historySize;
+    private Path historyFile;
+    private final List<int[]> readWatches = new ArrayList<>();
+    private final List<int[]> writeWatches = new ArrayList<>();
+    private final List<int[]> valueWatches = new ArrayList<>();
+    private long clockHz;
+    private ClockPacer pacer;
+
+    public static void main(String[] args) {
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            runner.parseArguments(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Erreur : " + e.getMessage());
+            printUsage();
+            System.exit(EXIT_ERROR);
+        }
+
+        try {
+            System.exit(runner.run());
+        } catch (IOException e) {
+            System.err.println("Erreur de lecture : " + e.getMessage());
+            System.exit(EXIT_ERROR);
+        }
+    }
+
+    // =======================
+    // ===== ARGUMENTS =======
+    // =======================
+
+    private void parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--binary":
+                    binary = true;
+                    break;
+                case "--load":
+                    loadAddress = parseAddress(next(args, ++i, arg));
+                    break;
+                case "--max-instructions":
+                    maxInstructions = parseCount(next(args, ++i, arg));
+                    break;
+                case "--max-cycles":
+                    maxCycles = parseCount(next(args, ++i, arg));
+                    break;
+                case "--dump":
+                    dumps.add(parseRange(next(args, ++i, arg)));
+                    break;
+                case "--blocks":
+                    blockMode = true;
+                    break;
+                case "--no-jit":
+                    jitEnabled = false;
+                    break;
+                case "--history":
+                    historySize = parseHistorySize(next(args, ++i, arg));
+                    break;
+                case "--history-file":
+                    historyFile = Paths.get(next(args, ++i, arg));
+                    break;
+                case "--watch-read":
+                    readWatches.add(parseWatchRange(next(args, ++i, arg)));
+                    break;
+                case "--watch-write":
+                    writeWatches.add(parseWatchRange(next(args, ++i, arg)));
+                    break;
+                case "--watch-value":
+                    valueWatches.add(parseWatchValue(next(args, ++i, arg)));
+                    break;
+                case "--clock":
+                    clockHz = parseClock(next(args, ++i, arg));
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        throw new IllegalArgumentException("option inconnue " + arg);
+                    }
+                    if (file != null) {
+                        throw new IllegalArgumentException("un seul fichier attendu");
+                    }
+                    file = Paths.get(arg);
+            }
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("fichier manquant");
+        }
+        if (file.toString().toLowerCase().endsWith(".bin")) {
+            binary = true;
+        }
+    }
+
+    static String next(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("valeur manquante pour " + option);
+        }
+        return args[i];
+    }
+
+    static int parseAddress(String value) {
+        long address = parseNumber(value);
+        if (address < 0 || address >= Memory.MEMORY_SIZE) {
+            throw new IllegalArgumentException(String.format("adresse hors mémoire : %s", value));
+        }
+        return (int) address;
+    }
+
+    static long parseCount(String value) {
+        long count = parseNumber(value);
+        if (count < 0) {
+            throw new IllegalArgumentException("limite négative : " + value);
+        }
+        return count;
+    }
+
+    private static int parseHistorySize(String value) {
+        long size = parseNumber(value);
+        if (size < 1 || size > Memory.MEMORY_SIZE) {
+            throw new IllegalArgumentException("taille d'historique invalide : " + value);
+        }
+        return (int) size;
+    }
+
+    private static int[] parseRange(String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("plage attendue DEBUT:FIN : " + value);
+        }
+        int start = parseAddress(value.substring(0, separator));
+        int end = parseAddress(value.substring(separator + 1));
+        if (end < start) {
+            throw new IllegalArgumentException("plage vide : " + value);
+        }
+        return new int[] { start, end };
+    }
+
+    private static int[] parseWatchRange(String value) {
+        if (value.indexOf(':') >= 0) return parseRange(value);
+        int address = parseAddress(value);
+        return new int[] { address, address };
+    }
+
+    private static int[] parseWatchValue(String value) {
+        int separator = value.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("ADDR=VAL attendu : " + value);
+        }
+        int address = parseAddress(value.substring(0, separator));
+        long expected = parseNumber(value.substring(separator + 1));
+        if (expected < 0 || expected > 0xFF) {
+            throw new IllegalArgumentException("valeur 8 bits attendue : " + value);
+        }
+        return new int[] { address, (int) expected };
+    }
+
+    private static long parseClock(String value) {
+        double mhz;
+        try {
+            mhz = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("fréquence invalide : " + value);
+        }
+        if (!(mhz > 0) || mhz > 1000) {
+            throw new IllegalArgumentException("fréquence hors limites : " + value);
+        }
+        return Math.round(mhz * 1_000_000);
+    }
+
+    static long parseNumber(String value) {
+        String text = value.trim().toUpperCase();
+        try {
+            if (text.startsWith("$")) return Long.parseLong(text.substring(1), 16);
+            if (text.startsWith("0X")) return Long.parseLong(text.substring(2), 16);
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("nombre invalide : " + value);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage : java -cp bin motorola.cli.HeadlessRunner [options] fichier");
+        System.err.println("  --binary  --load ADDR  --max-instructions N  --max-cycles N");
+        System.err.println("  --dump DEBUT:FIN  --blocks  --no-jit  --history N  --history-file FICHIER");
+        System.err.println("  --watch-read ADDR[:FIN]  --watch-write ADDR[:FIN]  --watch-value ADDR=VAL");
+        System.err.println("  --clock MHZ");
+    }
+
+    // =======================
+    // ===== EXÉCUTION =======
+    // =======================
+
+    private int run() throws IOException {
+        byte[] program = binary ? Files.readAllBytes(file) : assemble(file);
+        if (program.length == 0) {
+            System.err.println("Erreur d'assemblage : aucune instruction valide");
+            return EXIT_ERROR;
+        }
+        if (loadAddress + program.length > Memory.MEMORY_SIZE) {
+            System.err.println("Erreur : le programme dépasse la fin de la mémoire");
+            return EXIT_ERROR;
+        }
+
+        Memory memory = new Memory();
+        CPU cpu = new CPU(memory);
+        memory.loadProgram(program, loadAddress);
+        cpu.setRegPC(loadAddress);
+        cpu.setBlockMode(blockMode);
+        cpu.getBlockTranslator().setJitEnabled(jitEnabled);
+        if (historySize > 0) cpu.setHistoryCapacity(historySize);
+        for (int[] range : readWatches) cpu.getDebugger().addReadWatchpoint(range[0], range[1]);
+        for (int[] range : writeWatches) cpu.getDebugger().addWriteWatchpoint(range[0], range[1]);
+        for (int[] watch : valueWatches) cpu.getDebugger().addValueWatchpoint(watch[0], watch[1]);
+
+        // Lignes écrites par le programme lui-même, chargement exclu
+        DirtyLineSet written = memory.trackDirtyLines(false);
+
+        long start = System.nanoTime();
+        if (clockHz > 0) {
+            pacer = new ClockPacer(clockHz);
+            cpu.getDebugger().run(pacer, maxInstructions, maxCycles);
+        } else {
+            cpu.getDebugger().run(maxInstructions, maxCycles);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        printReport(cpu, program.length, elapsed);
+        int lines = written.fetchAndClear().count();
+        System.out.printf("Écritures   : %d lignes de %d octets (%d octets)%n",
+            lines, Memory.LINE_SIZE, lines * Memory.LINE_SIZE);
+        for (int[] range : dumps) {
+            printMemory(memory, range[0], range[1]);
+        }
+        if (historySize > 0) {
+            cpu.getDebugger().dumpHistory(System.out);
+        }
+        if (historyFile != null) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(historyFile))) {
+                cpu.getDebugger().dumpHistoryBinary(out);
+            }
+        }
+        if (cpu.isHalted()) return EXIT_HALTED;
+        return cpu.getDebugger().getWatchHitAddress() >= 0 ? EXIT_WATCHPOINT : EXIT_LIMIT;
+    }
+
+    static byte[] assemble(Path source) throws IOException {
+        List<String> lines = Files.readAllLines(source, StandardCharsets.UTF_8);
+        return new Assembler().assemble(lines.toArray(new String[0]));
+    }
+
+    // =======================
+    // ===== RAPPORT =========
+    // =======================
+
+    private void printReport(CPU cpu, int programSize, long elapsedNanos) {
+        long instructions = cpu.getInstructionCount();
+        double seconds = elapsedNanos / 1e9;
+        double ips = seconds > 0 ? instructions / seconds : 0;
+
+        System.out.println("===== RÉSULTAT =====");
+        System.out.printf("Programme   : %s (%d octets à $%04X)%n", file, programSize, loadAddress);
+        String stop;
+        if (cpu.isHalted()) stop = "HALT";
+        else if (cpu.getDebugger().getWatchHitAddress() >= 0) stop = "watchpoint, " + cpu.getDebugger().getWatchHitDescription();
+        else if (cpu.isWaiting()) stop = "attente d'interruption (SYNC / CWAI)";
+        else stop = "limite atteinte";
+        System.out.printf("Arrêt       : %s%n", stop);
+        System.out.println("Registres   : " + cpu.getDebugger().getCPUState());
+        System.out.printf("Instructions: %d%n", instructions);
+        System.out.printf("Cycles      : %d%n", cpu.getCycles());
+        System.out.printf("Durée       : %.3f ms%n", elapsedNanos / 1e6);
+        System.out.printf("Vitesse     : %.0f instructions/s%n", ips);
+        if (cpu.getInterruptCount() > 0) {
+            System.out.printf("Interruptions: %d, latence %d cycles (moyenne %.1f, max %d)%n",
+                cpu.getInterruptCount(), cpu.getLastInterruptLatency(),
+                cpu.getAverageInterruptLatency(), cpu.getMaxInterruptLatency());
+        }
+        if (pacer != null) {
+            System.out.println("Horloge     : " + pacer.getReport());
+        }
+    }
+
+    private static void printMemory(Memory memory, int start, int end) {
+        System.out.printf("===== MÉMOIRE $%04X-$%04X =====%n", start, end);
+        for (int row = start & ~0x0F; row <= end; row += 16) {
+            StringBuilder line = new StringBuilder(String.format("%04X:", row));
+            for (int address = row; address < row + 16; address++) {
+                if (address < start || address > end) line.append("   ");
+                else line.append(String.format(" %02X", memory.peekByte(address)));
+            }
+            System.out.println(line);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package motorola.cpu;
+
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Exécute des programmes indépendants en parallèle, une {@link Machine} par
+ * programme, sur un pool à vol de tâches (un thread par cœur par défaut).
+ *
+ * Les résultats sont rendus au fil de l'eau, dans l'ordre où les programmes
+ * se terminent, sur le thread qui a appelé {@link #runAll} : le consommateur
+ * n'a pas besoin d'être thread-safe.
+ */
+public class BatchExecutor implements AutoCloseable {
+
+    /**
+     * Un programme à exécuter et ses limites
+     */
+    public static final class Job {
+        final String name;
+        final byte[] program;
+        final int loadAddress;
+        final long maxInstructions;
+        final long maxCycles;
+        final boolean blockMode;
+        final boolean jitEnabled;
+
+        public Job(String name, byte[] program, int loadAddress, long maxInstructions, long maxCycles,
+                   boolean blockMode, boolean jitEnabled) {
+            this.name = name;
+            this.program = program;
+            this.loadAddress = loadAddress;
+            this.maxInstructions = maxInstructions;
+            this.maxCycles = maxCycles;
+            this.blockMode = blockMode;
+            this.jitEnabled = jitEnabled;
+        }
+
+        public String getName() { return name; }
+    }
+
+    /**
+     * Fin d'exécution d'un programme. La machine reste consultable (mémoire,
+     * registres) tant que le résultat est conservé.
+     */
+    public static final class Result {
+        private final Job job;
+        private final Machine machine;
+        private final Machine.Stop stop;
+        private final long elapsedNanos;
+        private final String error;
+
+        Result(Job job, Machine machine, Machine.Stop stop, long elapsedNanos, String error) {
+            this.job = job;
+            this.machine = machine;
+            this.stop = stop;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+        }
+
+        public String getName() { return job.name; }
+        public Machine getMachine() { return machine; }
+
+        /**
+         * null si l'exécution a échoué (voir getError)
+         */
+        public Machine.Stop getStop() { return stop; }
+        public String getError() { return error; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public long getInstructions() { return machine.getCPU().getInstructionCount(); }
+        public long getCycles() { return machine.getCPU().getCycles(); }
+    }
+
+    private final ForkJoinPool pool;
+
+    public BatchExecutor() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchExecutor(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Nombre de threads invalide : " + threads);
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    public int getThreads() { return pool.getParallelism(); }
+
+    /**
+     * Exécute tous les programmes et transmet chaque résultat dès qu'il est prêt
+     * @return Nombre de résultats transmis
+     */
+    public int runAll(List<Job> jobs, Consumer<Result> consumer) throws InterruptedException {
+        CompletionService<Result> done = new ExecutorCompletionService<>(pool);
+        for (Job job : jobs) {
+            done.submit(() -> execute(job));
+        }
+        for (int i = 0; i < jobs.size(); i++) {
+            try {
+                consumer.accept(done.take().get());
+            } catch (ExecutionException e) {
+                // execute() rend ses erreurs dans le résultat : ne devrait pas arriver
+                throw new IllegalStateException("Exécution interrompue", e.getCause());
+            }
+        }
+        return jobs.size();
+    }
+
+    /**
+     * Un programme sur une machine neuve, dans le thread courant
+     */
+    public static Result execute(Job job) {
+        Machine machine = new Machine();
+        long start = System.nanoTime();
+        try {
+            machine.getCPU().setBlockMode(job.blockMode);
+            machine.getCPU().getBlockTranslator().setJitEnabled(job.jitEnabled);
+            machine.load(job.program, job.loadAddress);
+            Machine.Stop stop = machine.run(job.maxInstructions, job.maxCycles);
+            return new Result(job, machine, stop, System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            String message = e.getMessage() != null ? e.getMessage() : e.toString();
+            return new Result(job, machine, null, System.nanoTime() - start, message);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package motorola.cpu;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import motorola.instructions.Instruction;
+
+/**
+ * Compilateur JIT : transforme un bloc de base chaud en classe cachée JVM
+ * (MethodHandles.Lookup.defineHiddenClass) dérivée de {@link CompiledBlock}.
+ *
+ * Pour un bloc de N instructions, la méthode run() générée contient N séquences
+ * « setRegPC / setExtendedIndirectMode / execute » déroulées, chacune appelant
+ * la classe exacte de l'instruction (invokevirtual) sur un champ final. Chaque
+ * site d'appel est donc monomorphe et HotSpot peut inliner le corps des
+ * instructions comme du code Java ordinaire. Entre deux instructions, le code
+ * rend la main sur point d'arrêt, arrêt CPU ou invalidation du bloc.
+ *
+ * Le fichier .class est produit à la main (version 50, sans StackMapTable) pour
+ * ne dépendre d'aucune bibliothèque de génération de bytecode.
+ */
+public class BlockCompiler {
+
+    private static final String CLASS_NAME = "motorola/cpu/JitBlock";
+    private static final String SUPER_NAME = "motorola/cpu/CompiledBlock";
+    private static final String INSTRUCTION = "motorola/instructions/Instruction";
+    private static final String CPU_NAME = "motorola/cpu/CPU";
+    private static final String MEMORY = "motorola/memory/Memory";
+    private static final String DEBUGGER = "motorola/cpu/Debugger";
+    private static final String EXECUTE_DESC = "(L" + CPU_NAME + ";L" + MEMORY + ";)V";
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    private long compiledBlocks;
+
+    /**
+     * Compile un bloc
+     * @param instructions Instructions du bloc, dans l'ordre
+     * @param pcs Adresse de chaque instruction (sortie sur point d'arrêt)
+     * @param operandPcs PC à positionner avant chaque instruction (après l'en-tête)
+     * @param indirect Mode indirect étendu de chaque instruction
+     * @param opcodes Premier octet de chaque instruction (historique)
+     * @param cycleOffsets Cycles du bloc écoulés avant chaque instruction (historique)
+     */
+    public CompiledBlock compile(Instruction[] instructions, int[] pcs, int[] operandPcs, boolean[] indirect,
+                                 int[] opcodes, int[] cycleOffsets)
+            throws ReflectiveOperationException {
+        byte[] bytes = generate(instructions, pcs, operandPcs, indirect, opcodes, cycleOffsets);
+        Class<?> hidden = lookup.defineHiddenClass(bytes, true).lookupClass();
+        CompiledBlock block = (CompiledBlock) hidden
+            .getConstructor(Instruction[].class)
+            .newInstance((Object) instructions);
+        compiledBlocks++;
+        return block;
+    }
+
+    public long getCompiledBlocks() { return compiledBlocks; }
+
+    // =======================
+    // ===== GÉNÉRATION ======
+    // =======================
+
+    private byte[] generate(Instruction[] instructions, int[] pcs, int[] operandPcs, boolean[] indirect,
+                            int[] opcodes, int[] cycleOffsets) {
+        ConstantPool cp = new ConstantPool();
+        int thisClass = cp.classRef(CLASS_NAME);
+        int superClass = cp.classRef(SUPER_NAME);
+
+        int n = instructions.length;
+        String[] types = new String[n];
+        int[] fieldRefs = new int[n];
+        int[] executeRefs = new int[n];
+        boolean[] viaInterface = new boolean[n];
+        for (int k = 0; k < n; k++) {
+            Class<?> type = instructions[k].getClass();
+            viaInterface[k] = !Modifier.isPublic(type.getModifiers());
+            types[k] = viaInterface[k] ? INSTRUCTION : type.getName().replace('.', '/');
+            fieldRefs[k] = cp.fieldRef(CLASS_NAME, "i" + k, "L" + types[k] + ";");
+            executeRefs[k] = viaInterface[k]
+                ? cp.interfaceMethodRef(INSTRUCTION, "execute", EXECUTE_DESC)
+                : cp.methodRef(types[k], "execute", EXECUTE_DESC);
+        }
+
+        byte[] init = generateConstructor(cp, n, types, fieldRefs);
+        byte[] run = generateRun(cp, instructions, pcs, operandPcs, indirect, opcodes, cycleOffsets, fieldRefs, executeRefs, viaInterface);
+
+        int codeName = cp.utf8("Code");
+        int initName = cp.utf8("<init>");
+        int initDesc = cp.utf8("([L" + INSTRUCTION + ";)V");
+        int runName = cp.utf8("run");
+        int runDesc = cp.utf8("(L" + CPU_NAME + ";L" + MEMORY + ";L" + DEBUGGER + ";)I");
+        int[] fieldNames = new int[n];
+        int[] fieldDescs = new int[n];
+        for (int k = 0; k < n; k++) {
+            fieldNames[k] = cp.utf8("i" + k);
+            fieldDescs[k] = cp.utf8("L" + types[k] + ";");
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(50);                 // Java 6 : vérification sans StackMapTable
+            cp.write(out);
+            out.writeShort(0x0001 | 0x0010 | 0x0020);   // public final super
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);                  // interfaces
+
+            out.writeShort(n);                  // champs i0..iN-1
+            for (int k = 0; k < n; k++) {
+                out.writeShort(0x0002 | 0x0010);    // private final
+                out.writeShort(fieldNames[k]);
+                out.writeShort(fieldDescs[k]);
+                out.writeShort(0);
+            }
+
+            out.writeShort(2);                  // méthodes
+            writeMethod(out, 0x0001, initName, initDesc, codeName, 3, 2, init);
+            writeMethod(out, 0x0001, runName, runDesc, codeName, 4, 4, run);
+
+            out.writeShort(0);                  // attributs de classe
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private byte[] generateConstructor(ConstantPool cp, int n, String[] types, int[] fieldRefs) {
+        Code code = new Code(cp);
+        int superInit = cp.methodRef(SUPER_NAME, "<init>", "()V");
+        code.op(0x2A);                          // aload_0
+        code.op(0xB7).u2(superInit);            // invokespecial CompiledBlock.<init>
+        for (int k = 0; k < n; k++) {
+            code.op(0x2A);                      // aload_0
+            code.op(0x2B);                      // aload_1
+            code.pushInt(k);
+            code.op(0x32);                      // aaload
+            code.op(0xC0).u2(cp.classRef(types[k]));    // checkcast
+            code.op(0xB5).u2(fieldRefs[k]);     // putfield
+        }
+        code.op(0xB1);                          // return
+        return code.toByteArray();
+    }
+
+    private byte[] generateRun(ConstantPool cp, Instruction[] instructions, int[] pcs, int[] operandPcs,
+                               boolean[] indirect, int[] opcodes, int[] cycleOffsets,
+                               int[] fieldRefs, int[] executeRefs, boolean[] viaInterface) {
+        Code code = new Code(cp);
+        int isBreakpoint = cp.methodRef(DEBUGGER, "isBreakpoint", "(I)Z");
+        int setRegPC = cp.methodRef(CPU_NAME, "setRegPC", "(I)V");
+        int setIndirect = cp.methodRef(CPU_NAME, "setExtendedIndirectMode", "(Z)V");
+        int recordHistory = cp.methodRef(CPU_NAME, "recordHistory", "(III)V");
+        int shouldExit = cp.methodRef(SUPER_NAME, "shouldExit", "(L" + CPU_NAME + ";)Z");
+
+        for (int k = 0; k < instructions.length; k++) {
+            if (k > 0) {
+                // if (debugger.isBreakpoint(pc)) return k;
+                code.op(0x2D);                  // aload_3
+                code.pushInt(pcs[k]);
+                code.op(0xB6).u2(isBreakpoint); // invokevirtual
+                code.exitIfTrue(k);
+            }
+            // Les cycles du bloc ne sont ajoutés qu'à la sortie : on passe l'écart
+            code.op(0x2B);                      // aload_1
+            code.pushInt(pcs[k]);
+            code.pushInt(opcodes[k]);
+            code.pushInt(cycleOffsets[k]);
+            code.op(0xB6).u2(recordHistory);
+            code.op(0x2B);                      // aload_1
+            code.pushInt(operandPcs[k]);
+            code.op(0xB6).u2(setRegPC);
+            code.op(0x2B);                      // aload_1
+            code.op(indirect[k] ? 0x04 : 0x03); // iconst_1 / iconst_0
+            code.op(0xB6).u2(setIndirect);
+
+            code.op(0x2A);                      // aload_0
+            code.op(0xB4).u2(fieldRefs[k]);     // getfield
+            code.op(0x2B);                      // aload_1
+            code.op(0x2C);                      // aload_2
+            if (viaInterface[k]) {
+                code.op(0xB9).u2(executeRefs[k]).u1(3).u1(0);  // invokeinterface
+            } else {
+                code.op(0xB6).u2(executeRefs[k]);              // invokevirtual
+            }
+
+            // if (shouldExit(cpu)) return k + 1;
+            code.op(0x2A);                      // aload_0
+            code.op(0x2B);                      // aload_1
+            code.op(0xB6).u2(shouldExit);
+            code.exitIfTrue(k + 1);
+        }
+        code.pushInt(instructions.length);
+        code.op(0xAC);                          // ireturn
+        return code.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int access, int name, int desc, int codeName,
+                                    int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(desc);
+        out.writeShort(1);                      // attribut Code
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);                      // exceptions
+        out.writeShort(0);                      // attributs
+    }
+
+    // =======================
+    // ===== BYTECODE ========
+    // =======================
+
+    /**
+     * Tampon de bytecode d'une méthode
+     */
+    private static final class Code {
+        private final ConstantPool cp;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Code(ConstantPool cp) { this.cp = cp; }
+
+        Code op(int opcode) { bytes.write(opcode); return this; }
+        Code u1(int value) { bytes.write(value); return this; }
+        Code u2(int value) { bytes.write(value >> 8); bytes.write(value); return this; }
+
+        void pushInt(int value) {
+            if (value >= -1 && value <= 5) {
+                op(0x03 + value);               // iconst_<n>
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                op(0x10).u1(value);             // bipush
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                op(0x11).u2(value);             // sipush
+            } else {
+                op(0x13).u2(cp.integer(value)); // ldc_w
+            }
+        }
+
+        /**
+         * Consomme le booléen en sommet de pile : s'il est vrai, retourne value
+         */
+        void exitIfTrue(int value) {
+            int pushLength = pushLength(value);
+            op(0x99).u2(3 + pushLength + 1);    // ifeq : saute le « return value »
+            pushInt(value);
+            op(0xAC);                           // ireturn
+        }
+
+        private static int pushLength(int value) {
+            if (value >= -1 && value <= 5) return 1;
+            if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) return 2;
+            return 3;
+        }
+
+        byte[] toByteArray() { return bytes.toByteArray(); }
+    }
+
+    /**
+     * Table des constantes du fichier .class généré
+     */
+    private static final class ConstantPool {
+        private final List<byte[]> entries = new ArrayList<>();
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        int utf8(String value) {
+            return add("U" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        int integer(int value) {
+            return add("I" + value, out -> {
+                out.writeByte(3);
+                out.writeInt(value);
+            });
+        }
+
+        int classRef(String name) {
+            int nameIndex = utf8(name);
+            return add("C" + name, out -> {
+                out.writeByte(7);
+                out.writeShort(nameIndex);
+            });
+        }
+
+        int fieldRef(String owner, String name, String desc) {
+            return memberRef(9, owner, name, desc);
+        }
+
+        int methodRef(String owner, String name, String desc) {
+            return memberRef(10, owner, name, desc);
+        }
+
+        int interfaceMethodRef(String owner, String name, String desc) {
+            return memberRef(11, owner, name, desc);
+        }
+
+        private int memberRef(int tag, String owner, String name, String desc) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descIndex = utf8(desc);
+            int nameAndType = add("N" + name + ":" + desc, out -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descIndex);
+            });
+            return add("M" + tag + owner + "." + name + ":" + desc, out -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+
+        private int add(String key, Entry entry) {
+            Integer index = indexes.get(key);
+            if (index != null) return index;
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                entry.write(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            entries.add(buffer.toByteArray());
+            index = entries.size();             // les index commencent à 1
+            indexes.put(key, index);
+            return index;
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeShort(entries.size() + 1);
+            for (byte[] entry : entries) out.write(entry);
+        }
+
+        private interface Entry {
+            void write(DataOutputStream out) throws IOException;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package motorola.cpu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import motorola.instructions.Instruction;
+import motorola.memory.CodeWriteListener;
+import motorola.memory.Memory;
+import motorola.trace.Trace;
+
+/**
+ * Traducteur de blocs de base : découpe le code en blocs linéaires terminés par
+ * un branchement et les transforme en tableaux d'opérations pré-liées.
+ *
+ * Moteur à trois niveaux : interpréteur, blocs d'opérations pré-liées, puis
+ * bytecode JVM ({@link BlockCompiler}) pour les blocs exécutés plus de
+ * jitThreshold fois.
+ *
+ * Un bloc est construit à partir des cases complètes du {@link PredecodeCache}
+ * (instruction résolue, en-tête, mode indirect) : l'exécution d'un bloc n'a plus
+ * besoin ni du cache ni du décodeur. Les blocs sont chaînés à leurs successeurs
+ * et supprimés dès qu'une écriture mémoire touche l'un de leurs octets.
+ * Tout ce qui ne peut pas être traduit repasse par l'interpréteur.
+ */
+public class BlockTranslator implements CodeWriteListener {
+
+    public static final int MAX_BLOCK_INSTRUCTIONS = 32;
+    private static final int MAX_BLOCK_BYTES = MAX_BLOCK_INSTRUCTIONS * PredecodeCache.MAX_LENGTH;
+
+    // Nombre maximum d'instructions enchaînées par appel de execute()
+    public static final int CHAIN_LIMIT = 1024;
+
+    public static final int DEFAULT_JIT_THRESHOLD = 1000;
+
+    // Instructions qui modifient (ou peuvent modifier) le flot d'exécution
+    private static final Set<String> TERMINATORS = new HashSet<>(Arrays.asList(
+        "BRA", "BRN", "BHI", "BLS", "BCC", "BCS", "BNE", "BEQ",
+        "BVC", "BVS", "BPL", "BMI", "BGE", "BLT", "BGT", "BLE",
+        "BSR", "LBRA", "LBSR", "LBEQ", "JMP", "JSR", "RTS", "RTI",
+        "SWI", "HALT", "SYNC", "CWAI", "TFR", "EXG", "PULS", "PULU"
+    ));
+
+    /**
+     * Opération pré-liée : une instruction du bloc avec son en-tête déjà décodé
+     */
+    public interface BlockOp {
+        void run(CPU cpu, Memory memory);
+    }
+
+    /**
+     * Bloc de base traduit
+     */
+    static final class Block {
+        final int start;
+        final int length;       // en octets
+        final BlockOp[] ops;
+        final int[] pcs;        // adresse de chaque instruction
+        final Instruction[] instructions;
+        final int[] operandPcs; // PC après l'en-tête de chaque instruction
+        final boolean[] indirect;
+        final int[] cycles;     // cycles de base cumulés des i premières instructions
+        boolean valid = true;
+
+        // Niveau JIT
+        int executions;
+        CompiledBlock compiled;
+
+        // Chaînage vers les deux derniers successeurs observés
+        Block link0;
+        Block link1;
+
+        Block(int start, int length, BlockOp[] ops, int[] pcs,
+              Instruction[] instructions, int[] operandPcs, boolean[] indirect, int[] cycles) {
+            this.start = start;
+            this.length = length;
+            this.ops = ops;
+            this.pcs = pcs;
+            this.instructions = instructions;
+            this.operandPcs = operandPcs;
+            this.indirect = indirect;
+            this.cycles = cycles;
+        }
+
+        void invalidate() {
+            valid = false;
+            if (compiled != null) compiled.invalidate();
+        }
+    }
+
+    private final CPU cpu;
+    private final PredecodeCache cache;
+    private final Block[] blocks = new Block[Memory.MEMORY_SIZE];
+    private final boolean[] covered = new boolean[Memory.MEMORY_SIZE];
+    private final BlockCompiler compiler = new BlockCompiler();
+
+    private boolean jitEnabled = true;
+    private int jitThreshold = DEFAULT_JIT_THRESHOLD;
+
+    private long translatedBlocks;
+    private long executedBlocks;
+    private long invalidatedBlocks;
+
+    public BlockTranslator(CPU cpu, PredecodeCache cache) {
+        this.cpu = cpu;
+        this.cache = cache;
+        cache.setInvalidationListener(this);
+    }
+
+    // =======================
+    // ===== EXÉCUTION =======
+    // =======================
+
+    /**
+     * Exécute une chaîne de blocs à partir du PC courant
+     * @return le nombre d'instructions exécutées (0 si rien n'a pu être traduit)
+     */
+    public int execute() {
+        Memory memory = cpu.getMemory();
+        Debugger debugger = cpu.getDebugger();
+        Block block = lookup(cpu.getRegPC());
+        int executed = 0;
+
+        while (block != null) {
+            executedBlocks++;
+            BlockOp[] ops = block.ops;
+
+            if (block.compiled != null) {
+                // Le premier point d'arrêt est vérifié par l'appelant
+                if (executed > 0 && debugger.isBreakpoint(block.start)) return executed;
+                int count = block.compiled.run(cpu, memory, debugger);
+                cpu.addCycles(block.cycles[count]);
+                executed += count;
+                if (count < ops.length) return executed;
+            } else {
+                for (int i = 0; i < ops.length; i++) {
+                    if (executed > 0 && debugger.isBreakpoint(block.pcs[i])) return executed;
+                    ops[i].run(cpu, memory);
+                    executed++;
+                    if (cpu.isHalted() || cpu.isWaiting()) return executed;
+                    // Le bloc s'est réécrit lui-même : la suite n'est plus fiable
+                    if (!block.valid) return executed;
+                }
+                // Le code compilé ne trace pas : pas de JIT quand la trace fetch est active
+                if (jitEnabled && !Trace.FETCH && ++block.executions >= jitThreshold) compile(block);
+            }
+            if (cpu.isHalted() || cpu.isWaiting() || !block.valid) return executed;
+            if (executed >= CHAIN_LIMIT) return executed;
+            // Interruption à prendre (levée ou démasquée dans le bloc) ou échéance atteinte
+            if (cpu.deliverableInterrupts() != 0) return executed;
+            if (cpu.getCycles() >= cpu.getScheduler().nextDeadline()) return executed;
+
+            int pc = cpu.getRegPC();
+            if (debugger.isBreakpoint(pc)) return executed;
+            block = follow(block, pc);
+        }
+        return executed;
+    }
+
+    private void compile(Block block) {
+        try {
+            int[] opcodes = new int[block.pcs.length];
+            for (int i = 0; i < opcodes.length; i++) opcodes[i] = cpu.getMemory().peekByte(block.pcs[i]) & 0xFF;
+            block.compiled = compiler.compile(block.instructions, block.pcs, block.operandPcs, block.indirect,
+                opcodes, block.cycles);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // Le bloc reste au niveau des opérations pré-liées
+            block.executions = Integer.MIN_VALUE;
+            System.err.println("JIT impossible pour le bloc " + String.format("%04X", block.start) + " : " + e);
+        }
+    }
+
+    private Block follow(Block block, int pc) {
+        Block next = block.link0;
+        if (next != null && next.valid && next.start == pc) return next;
+        next = block.link1;
+        if (next != null && next.valid && next.start == pc) return next;
+
+        next = lookup(pc);
+        if (next != null) {
+            block.link1 = block.link0;
+            block.link0 = next;
+        }
+        return next;
+    }
+
+    private Block lookup(int pc) {
+        Block block = blocks[pc];
+        if (block == null) {
+            block = translate(pc);
+            if (block != null) blocks[pc] = block;
+        }
+        return block;
+    }
+
+    // =======================
+    // ===== TRADUCTION ======
+    // =======================
+
+    private Block translate(int start) {
+        List<BlockOp> ops = new ArrayList<>();
+        List<Integer> pcs = new ArrayList<>();
+        List<Instruction> instructions = new ArrayList<>();
+        List<Integer> operandPcs = new ArrayList<>();
+        List<Boolean> indirects = new ArrayList<>();
+        int pc = start;
+        int length = 0;
+
+        while (ops.size() < MAX_BLOCK_INSTRUCTIONS && cache.isComplete(pc)) {
+            Instruction instruction = cache.get(pc);
+            int afterHeader = (pc + cache.getHeaderLength(pc)) & 0xFFFF;
+            boolean indirect = cache.isIndirect(pc);
+            int baseCycles = cache.getCycles(pc);
+            int instructionPc = pc;
+
+            ops.add((c, m) -> {
+                int opcode = m.peekByte(instructionPc) & 0xFF;
+                if (Trace.FETCH) Trace.record(Trace.CAT_FETCH, Trace.EV_OPCODE, instructionPc, opcode, 0);
+                c.recordHistory(instructionPc, opcode);
+                c.setRegPC(afterHeader);
+                c.setExtendedIndirectMode(indirect);
+                c.addCycles(baseCycles);
+                instruction.execute(c, m);
+            });
+            pcs.add(pc);
+            instructions.add(instruction);
+            operandPcs.add(afterHeader);
+            indirects.add(indirect);
+
+            length += cache.getLength(pc);
+            pc = (pc + cache.getLength(pc)) & 0xFFFF;
+            if (TERMINATORS.contains(instruction.getMnemonic())) break;
+        }
+
+        if (ops.isEmpty()) return null;
+
+        int count = ops.size();
+        int[] pcArray = new int[count];
+        int[] operandPcArray = new int[count];
+        boolean[] indirectArray = new boolean[count];
+        int[] cycleArray = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            pcArray[i] = pcs.get(i);
+            operandPcArray[i] = operandPcs.get(i);
+            indirectArray[i] = indirects.get(i);
+            cycleArray[i + 1] = cycleArray[i] + cache.getCycles(pcArray[i]);
+        }
+        for (int i = 0; i < length; i++) covered[(start + i) & 0xFFFF] = true;
+
+        translatedBlocks++;
+        return new Block(start, length, ops.toArray(new BlockOp[0]), pcArray,
+            instructions.toArray(new Instruction[0]), operandPcArray, indirectArray, cycleArray);
+    }
+
+    // =======================
+    // ===== INVALIDATION ====
+    // =======================
+
+    @Override
+    public void codeWritten(int address) {
+        if (!covered[address]) return;
+        covered[address] = false;
+        for (int k = 0; k < MAX_BLOCK_BYTES; k++) {
+            int start = (address - k) & 0xFFFF;
+            Block block = blocks[start];
+            if (block != null && block.length > k) {
+                block.invalidate();
+                blocks[start] = null;
+                invalidatedBlocks++;
+            }
+        }
+    }
+
+    @Override
+    public void memoryCleared() {
+        clear();
+    }
+
+    public void clear() {
+        for (int i = 0; i < Memory.MEMORY_SIZE; i++) {
+            Block block = blocks[i];
+            if (block != null) {
+                block.invalidate();
+                blocks[i] = null;
+            }
+            covered[i] = false;
+        }
+    }
+
+    // =======================
+    // ===== JIT =============
+    // =======================
+
+    public boolean isJitEnabled() { return jitEnabled; }
+    public void setJitEnabled(boolean jitEnabled) { this.jitEnabled = jitEnabled; }
+
+    public int getJitThreshold() { return jitThreshold; }
+    public void setJitThreshold(int jitThreshold) { this.jitThreshold = Math.max(1, jitThreshold); }
+
+    // =======================
+    // ===== STATISTIQUES ====
+    // =======================
+
+    public long getTranslatedBlocks() { return translatedBlocks; }
+    public long getExecutedBlocks() { return executedBlocks; }
+    public long getInvalidatedBlocks() { return invalidatedBlocks; }
+    public long getCompiledBlocks() { return compiler.getCompiledBlocks(); }
+}
@@ -1,6 +1,7 @@
 package motorola.cpu;
 
 import motorola.memory.Memory;
+import motorola.trace.Trace;
 
 public class CPU {
 
@@ -8,26 +9,40 @@ public class CPU {
     // ===== REGISTRES =======
     // =======================
 
-    // Accumulateurs 8 bits
-    private int accA;
-    private int accB;
-
-    // Accumulateur 16 bits (A:B)
-    private int accD;
-
-    // Registres index 16 bits
-    private int regX;
-    private int regY;
-    private int regU;   // User Stack Pointer
-    private int regS;   // System Stack Pointer
-
-    // Registres de contrôle
-    private int regPC;  // Program Counter
-    private int regDP;  // Direct Page Register
-
-    // Condition Code Register
-    // Bits: E F H I N Z V C
-    private int regCC;
+    // Codes de registre 6809 (numérotation du postbyte EXG/TFR du circuit)
+    public static final int REG_D  = 0;
+    public static final int REG_X  = 1;
+    public static final int REG_Y  = 2;
+    public static final int REG_U  = 3;
+    public static final int REG_S  = 4;
+    public static final int REG_PC = 5;
+    public static final int REG_A  = 8;
+    public static final int REG_B  = 9;
+    public static final int REG_CC = 10;
+    public static final int REG_DP = 11;
+
+    // Code sans registre (6, comme 7 et 12 à 15) : lu 0, écritures ignorées
+    public static final int REG_NONE = 6;
+
+    // Largeur de chaque entrée ; D n'a pas d'entrée propre (A:B)
+    private static final int[] REGISTER_MASKS = {
+        0, 0xFFFF, 0xFFFF, 0xFFFF, 0xFFFF, 0xFFFF, 0, 0,
+        0xFF, 0xFF, 0xFF, 0xFF, 0, 0, 0, 0
+    };
+
+    // Banc de registres indexé par code (16 entrées : tout quartet est valide).
+    // D est toujours recomposé depuis A et B, sans copie à maintenir.
+    // Les bits de CC couverts par lazyMask ne sont pas à jour : voir materializeFlags()
+    // Bits de CC : E F H I N Z V C
+    private final int[] regs = new int[16];
+
+    // Évaluation paresseuse des flags : dernière opération, opérandes et résultat
+    private int lazyKind = FLAGS_NONE;
+    private int lazyMask;
+    private int lazyA;
+    private int lazyB;
+    private int lazyResult;
+    private int lazyCarry;
 
     // =======================
     // ===== ÉTAT CPU ========
@@ -35,6 +50,7 @@ public class CPU {
 
     private boolean halted;
     private boolean waiting;
+    private boolean stateStacked;         // CWAI : état complet déjà empilé avant l'attente
     private boolean extendedIndirectMode; // Flag pour mode d'adressage indirect étendu
 
     // =======================
@@ -43,6 +59,59 @@ public class CPU {
 
     private final Memory memory;
     private final Debugger debugger;
+    private final PredecodeCache predecodeCache;
+    private final BlockTranslator blockTranslator;
+
+    // Mode d'exécution optionnel par blocs de base traduits
+    private boolean blockMode;
+
+    // Octets lus par fetchByte() depuis le début de l'instruction courante
+    private int fetchCount;
+
+    // =======================
+    // ===== TEMPS ===========
+    // =======================
+
+    // Cycles émulés (base CycleTable + suppléments) et instructions exécutées
+    private long cycles;
+    private long instructionCount;
+
+    // Journal d'annulation de l'exécution arrière (null = désactivée)
+    private UndoLog undoLog;
+
+    // Dernières instructions exécutées, pour l'analyse après un arrêt
+    private ExecutionHistory history = new ExecutionHistory(ExecutionHistory.DEFAULT_CAPACITY);
+
+    // Événements des périphériques temporisés, datés en cycles
+    private final EventScheduler scheduler = new EventScheduler();
+
+    // =======================
+    // ===== INTERRUPTIONS ===
+    // =======================
+
+    // Lignes d'interruption, combinables en masque
+    public static final int LINE_IRQ  = 0x01;
+    public static final int LINE_FIRQ = 0x02;
+    public static final int LINE_NMI  = 0x04;
+
+    // Vecteurs (adresse de l'octet haut)
+    public static final int VECTOR_FIRQ = 0xFFF6;
+    public static final int VECTOR_IRQ  = 0xFFF8;
+    public static final int VECTOR_NMI  = 0xFFFC;
+
+    // Lignes levées : testé une seule fois par instruction, rien d'autre
+    // n'est fait tant qu'il vaut 0
+    private int pendingLines;
+
+    // Cycle de levée de chaque ligne (index = numéro du bit), pour la latence
+    static final int LINE_COUNT = 3;
+    private final long[] lineRaisedAt = new long[LINE_COUNT];
+
+    // Latence en cycles entre la levée d'une ligne et la première instruction du handler
+    private long interruptCount;
+    private long lastInterruptLatency;
+    private long maxInterruptLatency;
+    private long totalInterruptLatency;
 
     // =======================
     // ===== FLAGS CC ========
@@ -57,6 +126,33 @@ public class CPU {
     public static final int CC_V = 0x02;
     public static final int CC_C = 0x01;
 
+    // =======================
+    // ===== FLAGS DIFFÉRÉS ==
+    // =======================
+
+    // Type de la dernière opération dont les flags restent à calculer
+    public static final int FLAGS_NONE    = 0;
+    public static final int FLAGS_NZ8     = 1;  // N, Z                (setAccA/B/D)
+    public static final int FLAGS_LOGIC8  = 2;  // N, Z, V=0           (LD, ST, AND, OR, EOR, BIT, TST)
+    public static final int FLAGS_LOGIC16 = 3;  // N, Z, V=0 sur 16 bits
+    public static final int FLAGS_ADD8    = 4;  // N, Z, V, C, H       (ADD, ADC)
+    public static final int FLAGS_SUB8    = 5;  // N, Z, V, C, H       (SUB, SBC, CMP)
+    public static final int FLAGS_ARITH16 = 6;  // N, Z, V, C sur 16 bits (ADDD, SUBD, CMPD)
+    public static final int FLAGS_INC8    = 7;  // N, Z, V             (INC)
+    public static final int FLAGS_DEC8    = 8;  // N, Z, V             (DEC)
+
+    private static final int[] FLAGS_MASKS = {
+        0,
+        CC_N | CC_Z,
+        CC_N | CC_Z | CC_V,
+        CC_N | CC_Z | CC_V,
+        CC_N | CC_Z | CC_V | CC_C | CC_H,
+        CC_N | CC_Z | CC_V | CC_C | CC_H,
+        CC_N | CC_Z | CC_V | CC_C,
+        CC_N | CC_Z | CC_V,
+        CC_N | CC_Z | CC_V
+    };
+
     // =======================
     // ===== CONSTRUCTEUR ====
     // =======================
@@ -64,6 +160,8 @@ public class CPU {
     public CPU(Memory memory) {
         this.memory = memory;
         this.debugger = new Debugger(this);
+        this.predecodeCache = new PredecodeCache(memory);
+        this.blockTranslator = new BlockTranslator(this, predecodeCache);
         reset();
     }
 
@@ -72,19 +170,24 @@ public class CPU {
     // =======================
 
     public void reset() {
-        accA = accB = 0;
-        updateAccD();
+        regs[REG_A] = regs[REG_B] = 0;
 
-        regX = regY = 0;
-        regU = regS = 0;
-        regDP = 0;  // Réinitialiser DP aussi
+        regs[REG_X] = regs[REG_Y] = 0;
+        regs[REG_U] = regs[REG_S] = 0;
+        regs[REG_DP] = 0;  // Réinitialiser DP aussi
 
-        regCC = CC_I | CC_F; // Interruptions masquées
+        regs[REG_CC] = CC_I | CC_F; // Interruptions masquées
+        lazyKind = FLAGS_NONE;
+        lazyMask = 0;
         halted = false;
         waiting = false;
+        resetInterrupts();
+        resetCycles();
+        history.clear();
+        if (undoLog != null) undoLog.clear();
 
         // PC initial (simplifié pour projet académique)
-        regPC = 0x0000;
+        regs[REG_PC] = 0x0000;
         
         // Réinitialiser la mémoire
         memory.reset();
@@ -95,20 +198,25 @@ public class CPU {
      * mais préserve DP et la mémoire utilisateur pour l'adressage mode DIRECT
      */
     public void resetForCompilation() {
-        accA = accB = 0;
-        updateAccD();
+        regs[REG_A] = regs[REG_B] = 0;
 
-        regX = regY = 0;
-        regU = regS = 0;
+        regs[REG_X] = regs[REG_Y] = 0;
+        regs[REG_U] = regs[REG_S] = 0;
         // DP est preservé lors du reset de compilation
-        // regDP = 0;
+        // regs[REG_DP] = 0;
 
-        regCC = CC_I | CC_F; // Interruptions masquées
+        regs[REG_CC] = CC_I | CC_F; // Interruptions masquées
+        lazyKind = FLAGS_NONE;
+        lazyMask = 0;
         halted = false;
         waiting = false;
+        resetInterrupts();
+        resetCycles();
+        history.clear();
+        if (undoLog != null) undoLog.clear();
 
         // PC initial (simplifié pour projet académique)
-        regPC = 0x0000;
+        regs[REG_PC] = 0x0000;
         
         // NE PAS réinitialiser la mémoire : préserve les données utilisateur
         // memory.reset();
@@ -119,8 +227,9 @@ public class CPU {
     // =======================
 
     public int fetchByte() {
-        int value = memory.readByte(regPC) & 0xFF;
-        regPC = (regPC + 1) & 0xFFFF;
+        int value = memory.readByte(regs[REG_PC]) & 0xFF;
+        regs[REG_PC] = (regs[REG_PC] + 1) & 0xFFFF;
+        fetchCount++;
         return value;
     }
 
@@ -135,123 +244,528 @@ public class CPU {
     // =======================
 
     public void executeInstruction() {
-        if (halted || waiting) return;
+        if (halted) return;
+        if (pendingLines != 0) serviceInterrupts();
+        if (waiting) return;
 
-        if (debugger.isBreakpoint(regPC)) {
+        if (debugger.isBreakpoint(regs[REG_PC])) {
             debugger.setPaused(true);
             return;
         }
 
+        dispatch();
+    }
+
+    /**
+     * Exécute l'instruction au PC sans tester les breakpoints
+     * (rejeu de l'exécution arrière depuis un point de reprise)
+     */
+    void executeIgnoringBreakpoints() {
+        if (halted) return;
+        if (pendingLines != 0) serviceInterrupts();
+        if (waiting) return;
+        dispatch();
+    }
+
+    private void dispatch() {
+        if (undoLog != null) journal();
+
+        int pc = regs[REG_PC];
+        motorola.instructions.Instruction instruction = predecodeCache.lookup(pc);
+
+        if (instruction != null) {
+            // L'en-tête est lu comme au premier passage (readByte) dès qu'un
+            // watchpoint existe, pour qu'un watchpoint de lecture sur un opcode
+            // se déclenche à chaque exécution ; sinon une lecture directe suffit.
+            // Jamais de périphérique ici : le cache refuse leurs pages.
+            int headerLength = predecodeCache.getHeaderLength(pc);
+            if (memory.isWatching()) {
+                for (int i = 0; i < headerLength; i++) {
+                    memory.readByte((pc + i) & 0xFFFF);
+                }
+            }
+            int opcode = memory.peekByte(pc) & 0xFF;
+            if (Trace.FETCH) Trace.record(Trace.CAT_FETCH, Trace.EV_OPCODE, pc, opcode, 0);
+            recordHistory(pc, opcode);
+            // Instruction déjà décodée : sauter marqueur/préfixe/opcode
+            regs[REG_PC] = (pc + headerLength) & 0xFFFF;
+            extendedIndirectMode = predecodeCache.isIndirect(pc);
+            cycles += predecodeCache.getCycles(pc);
+            instructionCount++;
+            instruction.execute(this, memory);
+            return;
+        }
+
+        // Lu avant exécution : l'instruction peut réécrire son propre opcode
+        int baseCycles = CycleTable.baseCycles(memory, pc);
+
+        fetchCount = 0;
         int opcode = fetchByte();
-        System.out.printf("DEBUG CPU.executeInstruction: opcode=0x%02X at PC=%04X\n", opcode, (regPC-1)&0xFFFF);
+        if (Trace.FETCH) Trace.record(Trace.CAT_FETCH, Trace.EV_OPCODE, pc, opcode, 0);
+        recordHistory(pc, opcode);
         
-        // Vérifier le marqueur de mode indirect étendu
-        if (opcode == 0xFE) {
-            extendedIndirectMode = true;
-            opcode = fetchByte(); // Récupérer l'opcode réel
-        } else {
-            extendedIndirectMode = false;
-        }
+        // Le décodeur réactive ce mode s'il rencontre un marqueur indirect (0x04 / 0xFE)
+        extendedIndirectMode = false;
 
-        motorola.instructions.Instruction instruction = motorola.decoder.InstructionDecoder.decode(opcode, this);
-        System.out.printf("DEBUG CPU.executeInstruction: instruction=%s\n", instruction != null ? instruction.getClass().getSimpleName() : "null");
+        instruction = motorola.decoder.InstructionDecoder.decode(opcode, this);
+        if (Trace.DECODE) traceDecode(pc, instruction);
 
         if (instruction != null) {
+            predecodeCache.store(pc, instruction, fetchCount, extendedIndirectMode, baseCycles);
+            cycles += baseCycles;
+            instructionCount++;
             instruction.execute(this, memory);
+            predecodeCache.complete(pc, instruction, fetchCount);
         } else {
             System.err.printf(
                 "Opcode inconnu à l'adresse %04X : %02X%n",
-                regPC - 1, opcode
+                regs[REG_PC] - 1, opcode
             );
             halted = true;
         }
     }
 
+    /**
+     * Enregistre l'état courant dans le journal d'annulation, avant une
+     * instruction ou une entrée en interruption (chacune est un pas arrière)
+     */
+    private void journal() {
+        undoLog.checkpointIfDue(this);
+        undoLog.record(regs[REG_A], regs[REG_B], regs[REG_X], regs[REG_Y], regs[REG_U], regs[REG_S],
+            regs[REG_PC], regs[REG_DP], regs[REG_CC], lazyKind, lazyA, lazyB, lazyResult, lazyCarry,
+            halted, waiting, stateStacked, extendedIndirectMode, cycles, instructionCount,
+            pendingLines, lineRaisedAt);
+    }
+
+    /**
+     * Exécute une chaîne de blocs traduits, ou une seule instruction via
+     * l'interpréteur si le code au PC n'est pas (encore) traduisible
+     */
+    public void executeBlock() {
+        if (halted) return;
+
+        // Interruption à prendre ou attente : l'interpréteur s'en charge. Une
+        // ligne masquée n'arrête pas les blocs : CC ne change qu'en fin de bloc
+        // (TFR, PULS, RTI... sont des fins de bloc), où le test est refait
+        if (waiting || deliverableInterrupts() != 0) {
+            executeInstruction();
+            return;
+        }
+
+        if (debugger.isBreakpoint(regs[REG_PC])) {
+            debugger.setPaused(true);
+            return;
+        }
+
+        // Les blocs ne s'arrêtent pas au milieu sur un watchpoint et ne
+        // journalisent pas chaque instruction : interpréteur
+        if (memory.isWatching() || undoLog != null) {
+            executeInstruction();
+            return;
+        }
+
+        int executed = blockTranslator.execute();
+        if (executed == 0) {
+            executeInstruction();
+        } else {
+            instructionCount += executed;
+        }
+    }
+
     public void step() {
         executeInstruction();
     }
 
+    /**
+     * Ajoute l'état courant (avant exécution de l'instruction en pc) à l'historique
+     */
+    public void recordHistory(int pc, int opcode) {
+        recordHistory(pc, opcode, 0);
+    }
+
+    /**
+     * Variante du code compilé, qui n'ajoute les cycles du bloc qu'à la sortie
+     * @param pendingCycles Cycles déjà écoulés dans le bloc mais pas encore comptés
+     */
+    public void recordHistory(int pc, int opcode, int pendingCycles) {
+        history.record(pc, opcode, regs[REG_A], regs[REG_B], regs[REG_X], regs[REG_Y], regs[REG_U], regs[REG_S],
+            cycles + pendingCycles, regs[REG_CC], lazyKind, lazyA, lazyB, lazyResult, lazyCarry);
+    }
+
+    /**
+     * Enregistre les octets d'en-tête décodés (marqueur, préfixe, opcode, postbyte)
+     */
+    private void traceDecode(int pc, motorola.instructions.Instruction instruction) {
+        int header = 0;
+        for (int i = 0; i < fetchCount && i < 4; i++) {
+            header = (header << 8) | memory.peekByte((pc + i) & 0xFFFF);
+        }
+        int length = instruction != null ? Math.min(fetchCount, 4) : 0;
+        Trace.record(Trace.CAT_DECODE, Trace.EV_DECODED, pc, header, length);
+    }
+
+    // =======================
+    // ===== INTERRUPTIONS ===
+    // =======================
+
+    /**
+     * Lève des lignes d'interruption (LINE_*). IRQ et FIRQ sont des niveaux :
+     * elles restent actives jusqu'à releaseInterrupt(). NMI est mémorisée et
+     * consommée par sa prise en compte.
+     */
+    public void raiseInterrupt(int lines) {
+        lines &= LINE_IRQ | LINE_FIRQ | LINE_NMI;
+        int rising = lines & ~pendingLines;
+        while (rising != 0) {
+            lineRaisedAt[Integer.numberOfTrailingZeros(rising)] = cycles;
+            rising &= rising - 1;
+        }
+        pendingLines |= lines;
+    }
+
+    /**
+     * Relâche des lignes IRQ / FIRQ (une NMI mémorisée n'est pas annulée)
+     */
+    public void releaseInterrupt(int lines) {
+        pendingLines &= ~(lines & (LINE_IRQ | LINE_FIRQ));
+    }
+
+    public int getPendingInterrupts() { return pendingLines; }
+
+    /**
+     * Lignes levées qui seraient prises maintenant : NMI, FIRQ si F = 0, IRQ
+     * si I = 0. I et F ne sont jamais différés, regs[REG_CC] suffit.
+     */
+    int deliverableInterrupts() {
+        int lines = pendingLines;
+        if (lines == 0) return 0;
+        int cc = regs[REG_CC];
+        if ((cc & CC_F) != 0) lines &= ~LINE_FIRQ;
+        if ((cc & CC_I) != 0) lines &= ~LINE_IRQ;
+        return lines;
+    }
+
+    /**
+     * Prend en compte la ligne prioritaire non masquée (NMI, FIRQ, IRQ), en
+     * limite d'instruction. Une ligne masquée réveille quand même SYNC.
+     */
+    private void serviceInterrupts() {
+        int lines = pendingLines;
+        if ((lines & LINE_NMI) != 0) {
+            enterInterrupt(LINE_NMI, VECTOR_NMI, true, CC_I | CC_F);
+            return;
+        }
+        // I et F ne sont jamais différés : inutile de calculer les flags en attente
+        int cc = regs[REG_CC];
+        if ((lines & LINE_FIRQ) != 0 && (cc & CC_F) == 0) {
+            enterInterrupt(LINE_FIRQ, VECTOR_FIRQ, false, CC_I | CC_F);
+            return;
+        }
+        if ((lines & LINE_IRQ) != 0 && (cc & CC_I) == 0) {
+            enterInterrupt(LINE_IRQ, VECTOR_IRQ, true, CC_I);
+            return;
+        }
+        // SYNC reprend à l'instruction suivante ; CWAI attend une interruption acceptée
+        if (waiting && !stateStacked) waiting = false;
+    }
+
+    /**
+     * Empile l'état (complet avec E=1, ou PC et CC seuls avec E=0 pour FIRQ),
+     * masque les interruptions et saute au vecteur. Une NMI mémorisée est
+     * consommée ici, après l'enregistrement dans le journal d'annulation.
+     */
+    private void enterInterrupt(int line, int vector, boolean entire, int mask) {
+        if (undoLog != null) journal();
+        pendingLines &= ~(line & LINE_NMI);
+
+        int entryCycles;
+        if (stateStacked) {
+            // CWAI a déjà tout empilé : seul le vecteur reste à lire
+            entryCycles = CycleTable.INTERRUPT_STACKED;
+        } else if (entire) {
+            setRegCC(getRegCC() | CC_E);
+            pushEntireState();
+            entryCycles = CycleTable.INTERRUPT_ENTIRE;
+        } else {
+            setRegCC(getRegCC() & ~CC_E);
+            pushWord(regs[REG_PC]);
+            pushByte(regs[REG_CC]);
+            entryCycles = CycleTable.INTERRUPT_FAST;
+        }
+        setRegCC(regs[REG_CC] | mask);
+        regs[REG_PC] = memory.readWord(vector);
+        waiting = false;
+        stateStacked = false;
+        cycles += entryCycles;
+
+        long latency = cycles - lineRaisedAt[Integer.numberOfTrailingZeros(line)];
+        interruptCount++;
+        lastInterruptLatency = latency;
+        totalInterruptLatency += latency;
+        if (latency > maxInterruptLatency) maxInterruptLatency = latency;
+    }
+
+    /**
+     * Empile PC, U, Y, X, DP, B, A puis CC (IRQ, NMI, CWAI)
+     */
+    public void pushEntireState() {
+        pushWord(regs[REG_PC]);
+        pushWord(regs[REG_U]);
+        pushWord(regs[REG_Y]);
+        pushWord(regs[REG_X]);
+        pushByte(regs[REG_DP]);
+        pushByte(regs[REG_B]);
+        pushByte(regs[REG_A]);
+        pushByte(getRegCC());
+    }
+
+    private void resetInterrupts() {
+        pendingLines = 0;
+        stateStacked = false;
+        interruptCount = 0;
+        lastInterruptLatency = 0;
+        maxInterruptLatency = 0;
+        totalInterruptLatency = 0;
+    }
+
+    public long getInterruptCount() { return interruptCount; }
+
+    /**
+     * Cycles entre la levée de la ligne et la première instruction du
+     * handler (masquage, attente de fin d'instruction et empilement compris)
+     */
+    public long getLastInterruptLatency() { return lastInterruptLatency; }
+    public long getMaxInterruptLatency() { return maxInterruptLatency; }
+
+    public double getAverageInterruptLatency() {
+        return interruptCount > 0 ? (double) totalInterruptLatency / interruptCount : 0;
+    }
+
     // =======================
     // ===== FLAGS ===========
     // =======================
 
     public boolean isFlagSet(int flag) {
-        return (regCC & flag) != 0;
+        if ((lazyMask & flag) != 0) materializeFlags();
+        return (regs[REG_CC] & flag) != 0;
     }
 
     public void setFlag(int flag, boolean value) {
-        if (value) regCC |= flag;
-        else regCC &= ~flag;
+        if ((lazyMask & flag) != 0) materializeFlags();
+        if (value) regs[REG_CC] |= flag;
+        else regs[REG_CC] &= ~flag;
     }
 
     private void updateNZ(int value) {
-        setFlag(CC_Z, (value & 0xFF) == 0);
-        setFlag(CC_N, (value & 0x80) != 0);
+        deferFlags(FLAGS_NZ8, 0, 0, value);
+    }
+
+    /**
+     * Enregistre une opération dont les flags ne seront calculés qu'à la lecture
+     * (isFlagSet, getRegCC, branchement conditionnel, empilement de CC)
+     * @param kind Type d'opération (FLAGS_*)
+     * @param a Premier opérande
+     * @param b Second opérande
+     * @param result Résultat non masqué
+     */
+    public void deferFlags(int kind, int a, int b, int result) {
+        deferFlags(kind, a, b, result, 0);
+    }
+
+    /**
+     * Variante avec retenue / emprunt entrant (ADC, SBC)
+     */
+    public void deferFlags(int kind, int a, int b, int result, int carry) {
+        int mask = FLAGS_MASKS[kind];
+        // L'opération en attente définit des flags que la nouvelle ne couvre pas
+        if ((lazyMask & ~mask) != 0) materializeFlags();
+        lazyKind = kind;
+        lazyMask = mask;
+        lazyA = a;
+        lazyB = b;
+        lazyResult = result;
+        lazyCarry = carry;
+    }
+
+    /**
+     * Calcule les flags de l'opération en attente et les range dans CC
+     */
+    private void materializeFlags() {
+        regs[REG_CC] = evaluateFlags(regs[REG_CC], lazyKind, lazyA, lazyB, lazyResult, lazyCarry);
+        if (Trace.FLAGS) Trace.record(Trace.CAT_FLAGS, Trace.EV_FLAGS, regs[REG_PC], lazyKind, regs[REG_CC]);
+        lazyKind = FLAGS_NONE;
+        lazyMask = 0;
+    }
+
+    /**
+     * Applique à cc les flags d'une opération différée (aussi utilisé pour
+     * relire l'historique d'exécution, qui conserve CC sous forme différée)
+     */
+    static int evaluateFlags(int cc, int kind, int a, int b, int r, int carry) {
+        int flags = 0;
+
+        switch (kind) {
+            case FLAGS_NZ8:
+            case FLAGS_LOGIC8:
+                if ((r & 0x80) != 0) flags |= CC_N;
+                if ((r & 0xFF) == 0) flags |= CC_Z;
+                break;
+            case FLAGS_LOGIC16:
+                if ((r & 0x8000) != 0) flags |= CC_N;
+                if ((r & 0xFFFF) == 0) flags |= CC_Z;
+                break;
+            case FLAGS_ADD8:
+                if ((r & 0x80) != 0) flags |= CC_N;
+                if ((r & 0xFF) == 0) flags |= CC_Z;
+                if (((a ^ r) & (b ^ r) & 0x80) != 0) flags |= CC_V;
+                if ((r & 0x100) != 0) flags |= CC_C;
+                if (((a & 0x0F) + (b & 0x0F) + carry) > 0x0F) flags |= CC_H;
+                break;
+            case FLAGS_SUB8:
+                if ((r & 0x80) != 0) flags |= CC_N;
+                if ((r & 0xFF) == 0) flags |= CC_Z;
+                if (((a ^ b) & (a ^ r) & 0x80) != 0) flags |= CC_V;
+                if (r < 0) flags |= CC_C;
+                if (((a & 0x0F) - (b & 0x0F) - carry) < 0) flags |= CC_H;
+                break;
+            case FLAGS_ARITH16:
+                if ((r & 0x8000) != 0) flags |= CC_N;
+                if ((r & 0xFFFF) == 0) flags |= CC_Z;
+                if (((a ^ b) & (a ^ r) & 0x8000) != 0) flags |= CC_V;
+                if ((r & 0x10000) != 0) flags |= CC_C;
+                break;
+            case FLAGS_INC8:
+                if ((r & 0x80) != 0) flags |= CC_N;
+                if ((r & 0xFF) == 0) flags |= CC_Z;
+                if (a == 0x7F) flags |= CC_V;
+                break;
+            case FLAGS_DEC8:
+                if ((r & 0x80) != 0) flags |= CC_N;
+                if ((r & 0xFF) == 0) flags |= CC_Z;
+                if (a == 0x80) flags |= CC_V;
+                break;
+            default:
+                break;
+        }
+
+        return (cc & ~FLAGS_MASKS[kind]) | flags;
     }
 
     // =======================
     // ===== GETTERS =========
     // =======================
 
-    public int getAccA() { return accA & 0xFF; }
-    public int getAccB() { return accB & 0xFF; }
-    public int getAccD() { return accD & 0xFFFF; }
+    public int getAccA() { return regs[REG_A] & 0xFF; }
+    public int getAccB() { return regs[REG_B] & 0xFF; }
+    public int getAccD() { return ((regs[REG_A] << 8) | regs[REG_B]) & 0xFFFF; }
+
+    public int getRegX() { return regs[REG_X] & 0xFFFF; }
+    public int getRegY() { return regs[REG_Y] & 0xFFFF; }
+    public int getRegU() { return regs[REG_U] & 0xFFFF; }
+    public int getRegS() { return regs[REG_S] & 0xFFFF; }
+    public int getRegPC() { return regs[REG_PC] & 0xFFFF; }
+    public int getRegDP() { return regs[REG_DP] & 0xFF; }
+    public int getRegCC() {
+        if (lazyMask != 0) materializeFlags();
+        return regs[REG_CC] & 0xFF;
+    }
 
-    public int getRegX() { return regX & 0xFFFF; }
-    public int getRegY() { return regY & 0xFFFF; }
-    public int getRegU() { return regU & 0xFFFF; }
-    public int getRegS() { return regS & 0xFFFF; }
-    public int getRegPC() { return regPC & 0xFFFF; }
-    public int getRegDP() { return regDP & 0xFF; }
-    public int getRegCC() { return regCC & 0xFF; }
+    /**
+     * CC pour l'affichage, sans rien ranger : getRegCC calcule les flags en
+     * attente dans l'état du CPU, ce qu'un autre thread que celui
+     * d'exécution (EDT) ne doit pas faire
+     */
+    public int peekRegCC() {
+        int kind = lazyKind;
+        int cc = regs[REG_CC];
+        if (kind != FLAGS_NONE) cc = evaluateFlags(cc, kind, lazyA, lazyB, lazyResult, lazyCarry);
+        return cc & 0xFF;
+    }
 
     // =======================
     // ===== SETTERS =========
     // =======================
 
     public void setAccA(int value) {
-        accA = value & 0xFF;
-        updateAccD();
-        updateNZ(accA);
+        regs[REG_A] = value & 0xFF;
+        updateNZ(regs[REG_A]);
     }
 
     public void setAccB(int value) {
-        accB = value & 0xFF;
-        updateAccD();
-        updateNZ(accB);
+        regs[REG_B] = value & 0xFF;
+        updateNZ(regs[REG_B]);
     }
 
     public void setAccD(int value) {
-        accD = value & 0xFFFF;
-        accA = (accD >> 8) & 0xFF;
-        accB = accD & 0xFF;
-        updateNZ(accB);
+        regs[REG_A] = (value >> 8) & 0xFF;
+        regs[REG_B] = value & 0xFF;
+        updateNZ(regs[REG_B]);
+    }
+
+    public void setRegX(int value) { regs[REG_X] = value & 0xFFFF; }
+    public void setRegY(int value) { regs[REG_Y] = value & 0xFFFF; }
+    public void setRegU(int value) { regs[REG_U] = value & 0xFFFF; }
+    public void setRegS(int value) { regs[REG_S] = value & 0xFFFF; }
+    public void setRegPC(int value){ regs[REG_PC] = value & 0xFFFF; }
+    public void setRegDP(int value){ regs[REG_DP] = value & 0xFF; }
+    public void setRegCC(int value){
+        regs[REG_CC] = value & 0xFF;
+        lazyKind = FLAGS_NONE;
+        lazyMask = 0;
     }
 
-    private void updateAccD() {
-        accD = ((accA << 8) | accB) & 0xFFFF;
+    // =======================
+    // ===== BANC DE REGISTRES
+    // =======================
+
+    /**
+     * Lit un registre par son code 6809 (REG_*) ; 0 pour un code sans registre
+     */
+    public int readRegister(int code) {
+        switch (code) {
+            case REG_D:  return getAccD();
+            case REG_CC: return getRegCC();
+            default:     return regs[code & 0xF];
+        }
     }
 
-    public void setRegX(int value) { regX = value & 0xFFFF; }
-    public void setRegY(int value) { regY = value & 0xFFFF; }
-    public void setRegU(int value) { regU = value & 0xFFFF; }
-    public void setRegS(int value) { regS = value & 0xFFFF; }
-    public void setRegPC(int value){ regPC = value & 0xFFFF; }
-    public void setRegDP(int value){ regDP = value & 0xFF; }
-    public void setRegCC(int value){ regCC = value & 0xFF; }
+    /**
+     * Écrit un registre par son code 6809, tronqué à sa largeur. A, B et D
+     * passent par leurs setters (N et Z), CC abandonne les flags différés ;
+     * les autres codes sont une simple écriture dans le banc.
+     */
+    public void writeRegister(int code, int value) {
+        switch (code) {
+            case REG_A:  setAccA(value); break;
+            case REG_B:  setAccB(value); break;
+            case REG_D:  setAccD(value); break;
+            case REG_CC: setRegCC(value); break;
+            default:     regs[code & 0xF] = value & REGISTER_MASKS[code & 0xF];
+        }
+    }
+
+    /**
+     * Largeur en octets d'un registre (1 ou 2), 0 pour un code sans registre
+     */
+    public static int registerSize(int code) {
+        if (code == REG_D) return 2;
+        return Integer.bitCount(REGISTER_MASKS[code & 0xF]) >> 3;
+    }
 
     // =======================
     // ===== PILES ===========
     // =======================
 
     public void pushByte(int value) {
-        regS = (regS - 1) & 0xFFFF;
-        memory.writeByte(regS, value & 0xFF);
+        regs[REG_S] = (regs[REG_S] - 1) & 0xFFFF;
+        memory.writeByte(regs[REG_S], value & 0xFF);
+        if (Trace.STACK) Trace.record(Trace.CAT_STACK, Trace.EV_PUSH_S, regs[REG_PC], value & 0xFF, regs[REG_S]);
     }
 
     public int popByte() {
-        int value = memory.readByte(regS) & 0xFF;
-        regS = (regS + 1) & 0xFFFF;
+        int value = memory.readByte(regs[REG_S]) & 0xFF;
+        regs[REG_S] = (regs[REG_S] + 1) & 0xFFFF;
+        if (Trace.STACK) Trace.record(Trace.CAT_STACK, Trace.EV_POP_S, regs[REG_PC], value, regs[REG_S]);
         return value;
     }
 
@@ -267,13 +781,15 @@ public class CPU {
     }
 
     public void pushByteU(int value) {
-        regU = (regU - 1) & 0xFFFF;
-        memory.writeByte(regU, value & 0xFF);
+        regs[REG_U] = (regs[REG_U] - 1) & 0xFFFF;
+        memory.writeByte(regs[REG_U], value & 0xFF);
+        if (Trace.STACK) Trace.record(Trace.CAT_STACK, Trace.EV_PUSH_U, regs[REG_PC], value & 0xFF, regs[REG_U]);
     }
 
     public int popByteU() {
-        int value = memory.readByte(regU) & 0xFF;
-        regU = (regU + 1) & 0xFFFF;
+        int value = memory.readByte(regs[REG_U]) & 0xFF;
+        regs[REG_U] = (regs[REG_U] + 1) & 0xFFFF;
+        if (Trace.STACK) Trace.record(Trace.CAT_STACK, Trace.EV_POP_U, regs[REG_PC], value, regs[REG_U]);
         return value;
     }
 
@@ -288,6 +804,145 @@ public class CPU {
         return ((hi << 8) | lo) & 0xFFFF;
     }
 
+    // =======================
+    // ===== CYCLES ==========
+    // =======================
+
+    /**
+     * Ajoute des cycles au compteur (suppléments indexés, branchement long pris...)
+     */
+    public void addCycles(int count) { cycles += count; }
+
+    public long getCycles() { return cycles; }
+
+    /**
+     * CPU en attente (SYNC / CWAI) : le temps avance jusqu'au prochain
+     * événement de l'échéancier, sans dépasser limit
+     * @return false si aucun événement ne peut plus le réveiller
+     */
+    public boolean idleUntilNextEvent(long limit) {
+        long next = scheduler.nextDeadline();
+        if (next == Long.MAX_VALUE) return false;
+        if (next > cycles) cycles = Math.max(cycles, Math.min(next, limit));
+        return true;
+    }
+
+    public EventScheduler getScheduler() { return scheduler; }
+    public long getInstructionCount() { return instructionCount; }
+
+    public void resetCycles() {
+        // Les échéances restent à la même distance du présent
+        scheduler.shift(-cycles);
+        cycles = 0;
+        instructionCount = 0;
+    }
+
+    // =======================
+    // ===== SNAPSHOTS =======
+    // =======================
+
+    /**
+     * Capture registres, état CPU, compteurs et RAM ; les pages mémoire non
+     * modifiées depuis la capture précédente sont partagées avec elle
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(regs[REG_A], regs[REG_B], regs[REG_X], regs[REG_Y], regs[REG_U], regs[REG_S],
+            regs[REG_PC], regs[REG_DP], getRegCC(),
+            halted, waiting, stateStacked, extendedIndirectMode, cycles, instructionCount,
+            pendingLines, lineRaisedAt, memory.snapshot());
+    }
+
+    /**
+     * Remet la machine dans l'état capturé (breakpoints et historique conservés)
+     */
+    public void restore(Snapshot snapshot) {
+        regs[REG_A] = snapshot.accA;
+        regs[REG_B] = snapshot.accB;
+        regs[REG_X] = snapshot.regX;
+        regs[REG_Y] = snapshot.regY;
+        regs[REG_U] = snapshot.regU;
+        regs[REG_S] = snapshot.regS;
+        regs[REG_PC] = snapshot.regPC;
+        regs[REG_DP] = snapshot.regDP;
+        setRegCC(snapshot.regCC);
+        halted = snapshot.halted;
+        waiting = snapshot.waiting;
+        stateStacked = snapshot.stateStacked;
+        extendedIndirectMode = snapshot.extendedIndirectMode;
+        cycles = snapshot.cycles;
+        instructionCount = snapshot.instructionCount;
+        restoreInterruptLines(snapshot.pendingLines, snapshot.lineRaisedAt, 0);
+        memory.restore(snapshot.memory);
+    }
+
+    /**
+     * Remet les lignes levées et leurs cycles de levée (snapshot, journal)
+     * @param raisedAt Cycles de levée, LINE_COUNT valeurs à partir de offset
+     */
+    void restoreInterruptLines(int pending, long[] raisedAt, int offset) {
+        pendingLines = pending;
+        System.arraycopy(raisedAt, offset, lineRaisedAt, 0, LINE_COUNT);
+    }
+
+    // =======================
+    // ===== EXÉCUTION ARRIÈRE
+    // =======================
+
+    public UndoLog getUndoLog() { return undoLog; }
+
+    /**
+     * Active l'exécution arrière avec un budget mémoire pour le journal
+     * (0 pour la désactiver). Le mode blocs repasse par l'interpréteur tant
+     * qu'elle est active.
+     */
+    public void setUndoBudget(int bytes) {
+        undoLog = bytes > 0 ? new UndoLog(memory, bytes) : null;
+        memory.setWriteJournal(undoLog);
+    }
+
+    /**
+     * Remet l'état registres enregistré par le journal (flags différés compris)
+     */
+    void restoreState(int a, int b, int x, int y, int u, int s, int pc, int dp,
+                      int cc, int kind, int la, int lb, int lr, int lc,
+                      boolean halted, boolean waiting, boolean stacked, boolean indirect,
+                      long cycles, long count) {
+        regs[REG_A] = a;
+        regs[REG_B] = b;
+        regs[REG_X] = x;
+        regs[REG_Y] = y;
+        regs[REG_U] = u;
+        regs[REG_S] = s;
+        regs[REG_PC] = pc;
+        regs[REG_DP] = dp;
+        regs[REG_CC] = cc;
+        lazyKind = kind;
+        lazyMask = FLAGS_MASKS[kind];
+        lazyA = la;
+        lazyB = lb;
+        lazyResult = lr;
+        lazyCarry = lc;
+        this.halted = halted;
+        this.waiting = waiting;
+        stateStacked = stacked;
+        extendedIndirectMode = indirect;
+        this.cycles = cycles;
+        instructionCount = count;
+    }
+
+    // =======================
+    // ===== HISTORIQUE ======
+    // =======================
+
+    public ExecutionHistory getHistory() { return history; }
+
+    /**
+     * Change le nombre d'instructions conservées ; l'historique courant est perdu
+     */
+    public void setHistoryCapacity(int capacity) {
+        history = new ExecutionHistory(capacity);
+    }
+
     // =======================
     // ===== AUTRES ==========
     // =======================
@@ -301,7 +956,15 @@ public class CPU {
     public boolean isWaiting() { return waiting; }
     public void setWaiting(boolean waiting) { this.waiting = waiting; }
 
+    public boolean isStateStacked() { return stateStacked; }
+    public void setStateStacked(boolean stacked) { stateStacked = stacked; }
+
     public Memory getMemory() { return memory; }
     public Debugger getDebugger() { return debugger; }
+    public PredecodeCache getPredecodeCache() { return predecodeCache; }
+    public BlockTranslator getBlockTranslator() { return blockTranslator; }
+
+    public boolean isBlockMode() { return blockMode; }
+    public void setBlockMode(boolean blockMode) { this.blockMode = blockMode; }
 }
 
@@ -0,0 +1,147 @@
+package motorola.cpu;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cadence l'exécution sur l'horloge nominale d'un vrai 6809.
+ *
+ * Le temps est découpé en créneaux (10 ms par défaut). Chaque créneau reçoit
+ * un budget de cycles émulés (horloge × durée) ; une fois le budget consommé,
+ * le thread est parqué jusqu'au début du créneau suivant. L'heure idéale est
+ * toujours recalculée depuis le départ, si bien que les arrondis ne
+ * s'accumulent pas.
+ *
+ * Usage :
+ *   pacer.start(cpu.getCycles());
+ *   while (...) {
+ *       long target = pacer.nextSliceEnd();
+ *       ... exécuter jusqu'à cpu.getCycles() >= target ...
+ *       pacer.endSlice(cpu.getCycles());
+ *   }
+ */
+public class ClockPacer {
+
+    public static final long CLOCK_1_MHZ   = 1_000_000L;
+    public static final long CLOCK_1_5_MHZ = 1_500_000L;
+    public static final long CLOCK_2_MHZ   = 2_000_000L;
+
+    public static final long DEFAULT_SLICE_NANOS = 10_000_000L;
+
+    // Au-delà de ce retard, on repart de l'heure courante au lieu de rattraper
+    public static final long MAX_CATCH_UP_NANOS = 250_000_000L;
+
+    private final long clockHz;
+    private final long sliceNanos;
+    private final long sliceCycles;
+
+    private long startNanos;
+    private long startCycles;
+    private long sliceEnd;
+
+    // Mesures
+    private long firstNanos;
+    private long firstCycles;
+    private long lastCycles;
+    private long lastNanos;
+    private long driftNanos;
+    private long maxDriftNanos;
+    private long lateSlices;
+    private long slices;
+    private long resyncs;
+
+    public ClockPacer(long clockHz) {
+        this(clockHz, DEFAULT_SLICE_NANOS);
+    }
+
+    public ClockPacer(long clockHz, long sliceNanos) {
+        if (clockHz <= 0 || sliceNanos <= 0) {
+            throw new IllegalArgumentException("Horloge ou créneau invalide");
+        }
+        this.clockHz = clockHz;
+        this.sliceNanos = sliceNanos;
+        this.sliceCycles = Math.max(1, clockHz * sliceNanos / 1_000_000_000L);
+    }
+
+    /**
+     * Prend l'heure et le compteur de cycles comme référence
+     */
+    public void start(long cycles) {
+        startNanos = firstNanos = lastNanos = System.nanoTime();
+        startCycles = firstCycles = lastCycles = cycles;
+        sliceEnd = cycles;
+        driftNanos = maxDriftNanos = 0;
+        lateSlices = slices = resyncs = 0;
+    }
+
+    /**
+     * Compteur de cycles à atteindre pour terminer le créneau suivant
+     */
+    public long nextSliceEnd() {
+        sliceEnd += sliceCycles;
+        return sliceEnd;
+    }
+
+    /**
+     * Fin de créneau : attend l'heure à laquelle le vrai processeur aurait
+     * exécuté ces cycles, ou note le retard si elle est déjà passée
+     * @param cycles Compteur de cycles du CPU
+     */
+    public void endSlice(long cycles) {
+        slices++;
+        lastCycles = cycles;
+        // Un créneau dépasse souvent de quelques cycles : le suivant en tient compte
+        if (cycles > sliceEnd) sliceEnd = cycles;
+
+        long ideal = startNanos + (cycles - startCycles) * 1_000_000_000L / clockHz;
+        long now = System.nanoTime();
+        driftNanos = now - ideal;
+        // Fin effective du créneau : maintenant si en retard, sinon après la pause
+        lastNanos = Math.max(now, ideal);
+
+        if (driftNanos > 0) {
+            lateSlices++;
+            if (driftNanos > maxDriftNanos) maxDriftNanos = driftNanos;
+            if (driftNanos > MAX_CATCH_UP_NANOS) {
+                // L'hôte ne suit pas : inutile d'enchaîner les créneaux sans pause
+                startNanos = now;
+                startCycles = cycles;
+                resyncs++;
+            }
+            return;
+        }
+        LockSupport.parkNanos(-driftNanos);
+    }
+
+    // =======================
+    // ===== MESURES =========
+    // =======================
+
+    public long getClockHz() { return clockHz; }
+    public long getSliceNanos() { return sliceNanos; }
+    public long getSliceCycles() { return sliceCycles; }
+
+    /**
+     * Fréquence effectivement tenue entre start() et la fin du dernier créneau
+     */
+    public double getAchievedHz() {
+        long elapsed = lastNanos - firstNanos;
+        return elapsed > 0 ? (lastCycles - firstCycles) * 1e9 / elapsed : 0;
+    }
+
+    /**
+     * Écart à l'heure idéale en fin du dernier créneau : positif = retard,
+     * négatif = avance, absorbée par la pause
+     */
+    public long getDriftNanos() { return driftNanos; }
+    public long getMaxDriftNanos() { return maxDriftNanos; }
+    public long getLateSlices() { return lateSlices; }
+    public long getSlices() { return slices; }
+    public long getResyncs() { return resyncs; }
+
+    public String getReport() {
+        return String.format("horloge %.3f MHz, atteinte %.3f MHz, écart %.2f ms (max %.2f ms), "
+                + "créneaux en retard %d/%d, resynchronisations %d",
+            clockHz / 1e6, getAchievedHz() / 1e6, driftNanos / 1e6, maxDriftNanos / 1e6,
+            lateSlices, slices, resyncs);
+    }
+}
@@ -0,0 +1,34 @@
+package motorola.cpu;
+
+import motorola.memory.Memory;
+
+/**
+ * Bloc de base compilé en bytecode JVM par {@link BlockCompiler}.
+ *
+ * Les sous-classes sont des classes cachées générées à l'exécution : leur
+ * méthode run() enchaîne les instructions du bloc sans boucle ni tableau, avec
+ * un site d'appel monomorphe par instruction que HotSpot peut inliner.
+ */
+public abstract class CompiledBlock {
+
+    // Passe à false quand une écriture mémoire touche le bloc
+    protected boolean valid = true;
+
+    /**
+     * Exécute le bloc à partir de sa première instruction
+     * @return le nombre d'instructions exécutées (moins que la taille du bloc
+     *         si on sort sur un point d'arrêt, un arrêt CPU ou une invalidation)
+     */
+    public abstract int run(CPU cpu, Memory memory, Debugger debugger);
+
+    /**
+     * Vrai si le code compilé doit rendre la main après une instruction
+     */
+    protected final boolean shouldExit(CPU cpu) {
+        return !valid || cpu.isHalted() || cpu.isWaiting();
+    }
+
+    public boolean isValid() { return valid; }
+
+    void invalidate() { valid = false; }
+}
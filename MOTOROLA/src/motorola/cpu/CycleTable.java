@@ -0,0 +1,121 @@
+package motorola.cpu;
+
+import motorola.memory.Memory;
+
+/**
+ * Tables des cycles de base du 6809 (fiche technique MC6809), une par page
+ * d'opcodes : page 1, page 2 (préfixe 0x10) et page 3 (préfixe 0x11).
+ *
+ * Les cycles de base ne comprennent pas les suppléments variables : octets
+ * de postbyte indexé (ajoutés par AddressingMode), indirection étendue et
+ * branchement long pris (ajoutés par les instructions concernées).
+ * Une case à 0 correspond à un opcode non défini ou à un préfixe.
+ */
+public class CycleTable {
+
+    // =======================
+    // ===== PAGE 1 ==========
+    // =======================
+
+    private static final int[] PAGE1 = {
+        //  0   1   2   3   4   5   6   7   8   9   A   B   C   D   E   F
+            6,  0,  0,  6,  6,  0,  6,  6,  6,  6,  6,  0,  6,  6,  3,  6,  // 0x  direct
+            0,  0,  2,  4,  0,  0,  5,  9,  0,  2,  3,  0,  3,  2,  8,  6,  // 1x
+            3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  3,  // 2x  branches
+            4,  4,  4,  4,  5,  5,  5,  5,  0,  5,  3,  6, 20, 11,  0, 19,  // 3x
+            2,  0,  0,  2,  2,  0,  2,  2,  2,  2,  2,  0,  2,  2,  0,  2,  // 4x  inhérent A
+            2,  0,  0,  2,  2,  0,  2,  2,  2,  2,  2,  2,  2,  2,  0,  2,  // 5x  inhérent B (5B = DECB ici)
+            6,  0,  0,  6,  6,  0,  6,  6,  6,  6,  6,  0,  6,  6,  3,  6,  // 6x  indexé
+            7,  0,  0,  7,  7,  0,  7,  7,  7,  7,  7,  0,  7,  7,  4,  7,  // 7x  étendu
+            2,  2,  2,  4,  2,  2,  2,  0,  2,  2,  2,  2,  4,  7,  3,  0,  // 8x  immédiat A
+            4,  4,  4,  6,  4,  4,  4,  4,  4,  4,  4,  4,  6,  7,  5,  5,  // 9x  direct A
+            4,  4,  4,  6,  4,  4,  4,  4,  4,  4,  4,  4,  6,  7,  5,  5,  // Ax  indexé A
+            5,  5,  5,  7,  5,  5,  5,  5,  5,  5,  5,  5,  7,  8,  6,  6,  // Bx  étendu A
+            2,  2,  2,  4,  2,  2,  2,  0,  2,  2,  2,  2,  3,  0,  3,  0,  // Cx  immédiat B
+            4,  4,  4,  6,  4,  4,  4,  4,  4,  4,  4,  4,  5,  5,  5,  5,  // Dx  direct B
+            4,  4,  4,  6,  4,  4,  4,  4,  4,  4,  4,  4,  5,  5,  5,  5,  // Ex  indexé B
+            5,  5,  5,  7,  5,  5,  5,  5,  5,  5,  5,  5,  6,  6,  6,  6   // Fx  étendu B
+    };
+
+    // =======================
+    // ===== PAGES 2 ET 3 ====
+    // =======================
+
+    private static final int[] PAGE2 = new int[256];
+    private static final int[] PAGE3 = new int[256];
+
+    static {
+        // Branchements longs conditionnels (+1 si pris)
+        for (int op = 0x21; op <= 0x2F; op++) PAGE2[op] = 5;
+        PAGE2[0x3F] = 20;   // SWI2
+
+        // CMPD / CMPY / LDY / STY
+        PAGE2[0x83] = 5;  PAGE2[0x8C] = 5;  PAGE2[0x8E] = 4;
+        PAGE2[0x93] = 7;  PAGE2[0x9C] = 7;  PAGE2[0x9E] = 6;  PAGE2[0x9F] = 6;
+        PAGE2[0xA3] = 7;  PAGE2[0xAC] = 7;  PAGE2[0xAE] = 6;  PAGE2[0xAF] = 6;
+        PAGE2[0xB3] = 8;  PAGE2[0xBC] = 8;  PAGE2[0xBE] = 7;  PAGE2[0xBF] = 7;
+
+        // LDS / STS
+        PAGE2[0xCE] = 4;
+        PAGE2[0xDE] = 6;  PAGE2[0xDF] = 6;
+        PAGE2[0xEE] = 6;  PAGE2[0xEF] = 6;
+        PAGE2[0xFE] = 7;  PAGE2[0xFF] = 7;
+
+        // Encodages propres à ce simulateur (STD et STS préfixés par 0x10)
+        PAGE2[0xDD] = 5;  PAGE2[0xED] = 5;  PAGE2[0xFD] = 6;
+        PAGE2[0xD7] = 6;  PAGE2[0xE7] = 6;  PAGE2[0xF7] = 7;
+
+        PAGE3[0x3F] = 20;   // SWI3
+
+        // CMPU / CMPS
+        PAGE3[0x83] = 5;  PAGE3[0x8C] = 5;
+        PAGE3[0x93] = 7;  PAGE3[0x9C] = 7;
+        PAGE3[0xA3] = 7;  PAGE3[0xAC] = 7;
+        PAGE3[0xB3] = 8;  PAGE3[0xBC] = 8;
+    }
+
+    // =======================
+    // ===== SUPPLÉMENTS =====
+    // =======================
+
+    // Branchement long conditionnel pris
+    public static final int LONG_BRANCH_TAKEN = 1;
+
+    // Indirection étendue [n16] par rapport au mode étendu
+    public static final int EXTENDED_INDIRECT = 4;
+
+    // Indirection indexée [,R]
+    public static final int INDEXED_INDIRECT = 3;
+
+    // RTI d'une pile complète (E=1) : 15 cycles au lieu de 6
+    public static final int RTI_ENTIRE = 9;
+
+    // Prise d'interruption : pile complète (IRQ, NMI), rapide (FIRQ), ou
+    // après CWAI où l'état est déjà empilé et seul le vecteur est lu
+    public static final int INTERRUPT_ENTIRE = 19;
+    public static final int INTERRUPT_FAST = 10;
+    public static final int INTERRUPT_STACKED = 7;
+
+    // =======================
+    // ===== LECTURE =========
+    // =======================
+
+    public static int page1(int opcode) { return PAGE1[opcode & 0xFF]; }
+    public static int page2(int opcode) { return PAGE2[opcode & 0xFF]; }
+    public static int page3(int opcode) { return PAGE3[opcode & 0xFF]; }
+
+    /**
+     * Cycles de base de l'instruction qui commence à l'adresse donnée
+     * (marqueur indirect 0x04 / 0xFE et préfixe 0x10 / 0x11 compris)
+     */
+    public static int baseCycles(Memory memory, int pc) {
+        int opcode = memory.peekByte(pc) & 0xFF;
+        if (opcode == 0x04 || opcode == 0xFE) {
+            pc = (pc + 1) & 0xFFFF;
+            opcode = memory.peekByte(pc) & 0xFF;
+        }
+        if (opcode == 0x10) return page2(memory.peekByte((pc + 1) & 0xFFFF));
+        if (opcode == 0x11) return page3(memory.peekByte((pc + 1) & 0xFFFF));
+        return page1(opcode);
+    }
+}
@@ -1,27 +1,57 @@
 package motorola.cpu;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import motorola.memory.Memory;
+import motorola.memory.WatchListener;
 
 
-public class Debugger {
+public class Debugger implements WatchListener {
 
     private final CPU cpu;
-    private final Set<Integer> breakpoints;
+    // Un bit par adresse ; hasBreakpoints évite la lecture du tableau s'il est vide
+    private final long[] breakpoints;
+    private int breakpointCount;
+    private boolean hasBreakpoints;
+    private final Set<Integer> breakpointView = new BreakpointView();
+
+    // Watchpoints : les bits de lecture/écriture sont dans Memory ; ici, ce qui
+    // distingue une écriture quelconque d'une écriture d'une valeur précise
+    private final BitSet writeWatchpoints = new BitSet(Memory.MEMORY_SIZE);
+    private final Map<Integer, Integer> valueWatchpoints = new HashMap<>();
+    private int watchHitAddress = -1;
+    private int watchHitValue;
+    private boolean watchHitWrite;
+
+    // Rejeu de l'exécution arrière en cours : les watchpoints ne se déclenchent pas
+    private boolean replaying;
 
     private boolean paused;
     private boolean stepMode;
     private int lastExecutedPC;
 
+    // Sortie de l'historique à l'arrêt de run() (null = pas de dump automatique)
+    private PrintStream historyOutput;
+
     // ===== CONSTRUCTEUR ====
     
 
     public Debugger(CPU cpu) {
         this.cpu = cpu;
-        this.breakpoints = new HashSet<>();
+        this.breakpoints = new long[Memory.MEMORY_SIZE >> 6];
         this.paused = false;
         this.stepMode = false;
         this.lastExecutedPC = -1;
+        cpu.getMemory().setWatchListener(this);
     }
 
 
@@ -29,23 +59,166 @@ public class Debugger {
     
 
     public void addBreakpoint(int address) {
-        breakpoints.add(address & 0xFFFF);
+        address &= 0xFFFF;
+        if (isBreakpoint(address)) return;
+        breakpoints[address >>> 6] |= 1L << address;
+        breakpointCount++;
+        hasBreakpoints = true;
     }
 
     public void removeBreakpoint(int address) {
-        breakpoints.remove(address & 0xFFFF);
+        address &= 0xFFFF;
+        if (!isBreakpoint(address)) return;
+        breakpoints[address >>> 6] &= ~(1L << address);
+        breakpointCount--;
+        hasBreakpoints = breakpointCount > 0;
     }
 
     public boolean isBreakpoint(int address) {
-        return breakpoints.contains(address & 0xFFFF);
+        return hasBreakpoints && (breakpoints[(address & 0xFFFF) >>> 6] & (1L << address)) != 0;
+    }
+
+    public boolean hasBreakpoints() {
+        return hasBreakpoints;
     }
 
+    /**
+     * Vue non modifiable des breakpoints, à jour sans copie
+     */
     public Set<Integer> getBreakpoints() {
-        return new HashSet<>(breakpoints);
+        return breakpointView;
     }
 
     public void clearBreakpoints() {
-        breakpoints.clear();
+        Arrays.fill(breakpoints, 0L);
+        breakpointCount = 0;
+        hasBreakpoints = false;
+    }
+
+    private final class BreakpointView extends AbstractSet<Integer> {
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && isBreakpoint((Integer) o);
+        }
+
+        @Override
+        public int size() {
+            return breakpointCount;
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+                private int next = find(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public Integer next() {
+                    if (next < 0) throw new NoSuchElementException();
+                    int address = next;
+                    next = find(address + 1);
+                    return address;
+                }
+            };
+        }
+
+        // Prochaine adresse avec breakpoint à partir de from, -1 si aucune
+        private int find(int from) {
+            if (!hasBreakpoints) return -1;
+            for (int word = from >>> 6; word < breakpoints.length; word++) {
+                long bits = breakpoints[word];
+                if (word == from >>> 6) bits &= -1L << from;
+                if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            return -1;
+        }
+    }
+
+
+    // ===== WATCHPOINTS =====
+
+
+    /**
+     * Pause après toute lecture entre start et end inclus
+     */
+    public void addReadWatchpoint(int start, int end) {
+        cpu.getMemory().watchRead(start, end, true);
+    }
+
+    /**
+     * Pause après toute écriture entre start et end inclus
+     */
+    public void addWriteWatchpoint(int start, int end) {
+        // Memory valide la plage (IllegalArgumentException) avant le BitSet
+        cpu.getMemory().watchWrite(start, end, true);
+        writeWatchpoints.set(start & 0xFFFF, (end & 0xFFFF) + 1);
+    }
+
+    /**
+     * Pause quand la valeur donnée est écrite à l'adresse
+     */
+    public void addValueWatchpoint(int address, int value) {
+        address &= 0xFFFF;
+        valueWatchpoints.put(address, value & 0xFF);
+        cpu.getMemory().watchWrite(address, address, true);
+    }
+
+    /**
+     * Retire tous les watchpoints entre start et end inclus
+     */
+    public void removeWatchpoints(int start, int end) {
+        start &= 0xFFFF;
+        end &= 0xFFFF;
+        cpu.getMemory().watchRead(start, end, false);
+        cpu.getMemory().watchWrite(start, end, false);
+        writeWatchpoints.clear(start, end + 1);
+        for (int address = start; address <= end; address++) {
+            valueWatchpoints.remove(address);
+        }
+    }
+
+    public void clearWatchpoints() {
+        writeWatchpoints.clear();
+        valueWatchpoints.clear();
+        cpu.getMemory().clearWatches();
+        watchHitAddress = -1;
+    }
+
+    @Override
+    public void watchpointHit(int address, int value, boolean write) {
+        if (replaying) return;
+        if (write && !writeWatchpoints.get(address)) {
+            Integer expected = valueWatchpoints.get(address);
+            if (expected == null || expected != value) return;
+        }
+        watchHitAddress = address;
+        watchHitValue = value;
+        watchHitWrite = write;
+        // L'instruction en cours se termine, run() s'arrête avant la suivante
+        paused = true;
+    }
+
+    /**
+     * Adresse du dernier watchpoint déclenché, -1 si aucun
+     */
+    public int getWatchHitAddress() { return watchHitAddress; }
+
+    /**
+     * Oublie le dernier watchpoint déclenché (run() le fait à chaque départ)
+     */
+    public void clearWatchHit() { watchHitAddress = -1; }
+    public int getWatchHitValue() { return watchHitValue; }
+    public boolean isWatchHitWrite() { return watchHitWrite; }
+
+    public String getWatchHitDescription() {
+        if (watchHitAddress < 0) return "aucun watchpoint déclenché";
+        return String.format("%s de %02X en %04X",
+            watchHitWrite ? "écriture" : "lecture", watchHitValue, watchHitAddress);
     }
 
   
@@ -89,6 +262,48 @@ public class Debugger {
         paused = true;
     }
 
+
+    // ===== EXÉCUTION ARRIÈRE
+
+
+    /**
+     * Annule la dernière instruction exécutée (exécution arrière activée par
+     * CPU.setUndoBudget). Au-delà du journal, repart du point de reprise
+     * précédent et rejoue jusqu'à l'instruction voulue, watchpoints coupés ;
+     * ce rejeu est refusé s'il traverserait des accès aux périphériques ou
+     * des événements de l'échéancier (voir UndoLog).
+     * @return false s'il n'y a plus rien à annuler, ou si le rejeu est refusé
+     */
+    public boolean stepBack() {
+        UndoLog log = cpu.getUndoLog();
+        if (log == null) return false;
+        paused = true;
+        if (log.undo(cpu)) return true;
+
+        long target = cpu.getInstructionCount() - 1;
+        if (target < 0 || !log.rewindTo(cpu, target)) return false;
+        replaying = true;
+        try {
+            while (cpu.getInstructionCount() < target && !cpu.isHalted()) {
+                cpu.executeIgnoringBreakpoints();
+            }
+        } finally {
+            replaying = false;
+        }
+        return true;
+    }
+
+    /**
+     * Remonte l'exécution jusqu'au breakpoint précédent
+     * @return false si le début du journal est atteint sans breakpoint
+     */
+    public boolean reverseContinue() {
+        while (stepBack()) {
+            if (isBreakpoint(cpu.getRegPC())) return true;
+        }
+        return false;
+    }
+
    
     // ===== CONTINUE ========
    
@@ -108,20 +323,97 @@ public class Debugger {
      * Exécution continue jusqu'à breakpoint ou arrêt
      */
     public void run() {
+        run(Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Exécution continue jusqu'à breakpoint, arrêt ou limite atteinte
+     * (compteurs du CPU ; en mode blocs, une chaîne peut dépasser légèrement).
+     * Les instructions s'enchaînent par lots jusqu'à l'échéance suivante de
+     * l'échéancier, dont les événements sont déclenchés entre deux lots.
+     * @param instructionLimit Nombre maximum d'instructions exécutées
+     * @param cycleLimit Nombre maximum de cycles émulés
+     */
+    public void run(long instructionLimit, long cycleLimit) {
         paused = false;
         stepMode = false;
+        clearWatchHit();
+        EventScheduler events = cpu.getScheduler();
 
         while (!paused && !cpu.isHalted()) {
 
-            // Arrêt AVANT exécution si breakpoint atteint
-            if (isBreakpoint(cpu.getRegPC())) {
-                paused = true;
+            if (cpu.getInstructionCount() >= instructionLimit || cpu.getCycles() >= cycleLimit) {
                 break;
             }
 
-            lastExecutedPC = cpu.getRegPC();
-            cpu.executeInstruction();
+            if (cpu.getCycles() >= events.nextDeadline()) {
+                events.fireDue(cpu.getCycles());
+            }
+
+            // SYNC / CWAI : une ligne levée le réveille, sinon le temps avance
+            // jusqu'au prochain événement
+            if (cpu.isWaiting()) {
+                cpu.executeInstruction();
+                if (cpu.isWaiting()) {
+                    if (!cpu.idleUntilNextEvent(cycleLimit)) break; // rien ne peut plus le réveiller
+                    continue;
+                }
+            }
+
+            // Lot jusqu'à l'échéance suivante : aucun test d'événement par instruction
+            long batchEnd = Math.min(cycleLimit, events.nextDeadline());
+            do {
+                // Arrêt AVANT exécution si breakpoint atteint
+                if (isBreakpoint(cpu.getRegPC())) {
+                    paused = true;
+                    break;
+                }
+
+                lastExecutedPC = cpu.getRegPC();
+                if (cpu.isBlockMode()) {
+                    cpu.executeBlock();
+                } else {
+                    cpu.executeInstruction();
+                }
+            } while (cpu.getCycles() < batchEnd && cpu.getInstructionCount() < instructionLimit
+                && !paused && !cpu.isHalted() && !cpu.isWaiting());
         }
+
+        if (historyOutput != null && (paused || cpu.isHalted())) {
+            dumpHistory(historyOutput);
+        }
+    }
+
+    /**
+     * Exécution cadencée sur l'horloge du pacer : run() par créneaux de
+     * cycles, avec une pause entre deux créneaux (voir ClockPacer)
+     */
+    public void run(ClockPacer pacer, long instructionLimit, long cycleLimit) {
+        pacer.start(cpu.getCycles());
+        do {
+            run(instructionLimit, Math.min(cycleLimit, pacer.nextSliceEnd()));
+            pacer.endSlice(cpu.getCycles());
+        } while (!paused && !cpu.isHalted()
+            && cpu.getInstructionCount() < instructionLimit && cpu.getCycles() < cycleLimit);
+    }
+
+    // ===== HISTORIQUE ======
+
+
+    /**
+     * Active le dump texte de l'historique quand run() s'arrête sur un
+     * breakpoint ou un arrêt CPU (null pour désactiver)
+     */
+    public void setHistoryOutput(PrintStream output) {
+        this.historyOutput = output;
+    }
+
+    public void dumpHistory(PrintStream out) {
+        cpu.getHistory().dumpText(out);
+    }
+
+    public void dumpHistoryBinary(OutputStream out) throws IOException {
+        cpu.getHistory().dumpBinary(out);
     }
 
     // ===== INFOS ===========
@@ -146,7 +438,7 @@ public class Debugger {
             cpu.getRegU(),
             cpu.getRegS(),
             cpu.getRegDP(),
-            cpu.getRegCC()
+            cpu.peekRegCC()
         );
     }
 }
@@ -0,0 +1,190 @@
+package motorola.cpu;
+
+import java.util.Arrays;
+
+/**
+ * Échéancier des périphériques temporisés : événements datés en cycles CPU.
+ *
+ * Les événements sont rangés dans un tas binaire (échéance la plus proche
+ * en tête). La boucle d'exécution enchaîne les instructions sans rien
+ * tester jusqu'à {@link #nextDeadline()}, puis appelle {@link #fireDue(long)} :
+ * un périphérique ne coûte rien entre deux de ses événements.
+ *
+ * Usage (timer périodique, réinscrit depuis l'échéance pour ne pas dériver) :
+ *   scheduler.schedule(cpu.getCycles() + period, new EventScheduler.Event() {
+ *       public void fire(long deadline, long now) {
+ *           cpu.raiseInterrupt(CPU.LINE_IRQ);
+ *           scheduler.schedule(deadline + period, this);
+ *       }
+ *   });
+ */
+public class EventScheduler {
+
+    /**
+     * Action d'un périphérique à une échéance
+     */
+    public interface Event {
+        /**
+         * @param deadline Échéance inscrite
+         * @param now Compteur de cycles du CPU au déclenchement (au moins
+         *            l'échéance : le test n'a lieu qu'entre instructions ou blocs)
+         */
+        void fire(long deadline, long now);
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Tas : échéance, puis ordre d'inscription pour départager les ex aequo
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private long[] orders = new long[INITIAL_CAPACITY];
+    private Event[] events = new Event[INITIAL_CAPACITY];
+    private int size;
+    private long nextOrder;
+
+    private long fired;
+
+    /**
+     * Inscrit un événement pour le cycle donné ; les événements de même
+     * échéance se déclenchent dans l'ordre d'inscription
+     */
+    public void schedule(long cycle, Event event) {
+        if (event == null) {
+            throw new IllegalArgumentException("Événement manquant");
+        }
+        if (size == deadlines.length) {
+            deadlines = Arrays.copyOf(deadlines, size * 2);
+            orders = Arrays.copyOf(orders, size * 2);
+            events = Arrays.copyOf(events, size * 2);
+        }
+        int i = size++;
+        deadlines[i] = cycle;
+        orders[i] = nextOrder++;
+        events[i] = event;
+        siftUp(i);
+    }
+
+    /**
+     * Retire toutes les échéances de cet événement
+     * @return false s'il n'en avait aucune
+     */
+    public boolean cancel(Event event) {
+        // Un seul passage qui garde les autres entrées, puis reconstruction du
+        // tas : retirer en cours de parcours déplacerait des entrées déjà vues
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (events[i] != event) {
+                if (kept != i) move(i, kept);
+                kept++;
+            }
+        }
+        if (kept == size) return false;
+        Arrays.fill(events, kept, size, null);
+        size = kept;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        return true;
+    }
+
+    /**
+     * Échéance la plus proche, Long.MAX_VALUE s'il n'y en a aucune
+     */
+    public long nextDeadline() {
+        return size > 0 ? deadlines[0] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Déclenche, dans l'ordre, tous les événements échus au cycle now ;
+     * un événement réinscrit pendant le déclenchement à une échéance déjà
+     * passée est lui aussi déclenché
+     * @return Nombre d'événements déclenchés
+     */
+    public int fireDue(long now) {
+        int count = 0;
+        while (size > 0 && deadlines[0] <= now) {
+            Event event = events[0];
+            long deadline = deadlines[0];
+            removeAt(0);
+            count++;
+            event.fire(deadline, now);
+        }
+        fired += count;
+        return count;
+    }
+
+    /**
+     * Décale toutes les échéances (remise à zéro du compteur de cycles)
+     */
+    public void shift(long delta) {
+        for (int i = 0; i < size; i++) {
+            deadlines[i] += delta;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(events, 0, size, null);
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Nombre total d'événements déclenchés
+     */
+    public long getFiredCount() { return fired; }
+
+    // =======================
+    // ===== TAS =============
+    // =======================
+
+    private void removeAt(int i) {
+        size--;
+        if (i != size) {
+            move(size, i);
+            siftDown(i);
+            siftUp(i);
+        }
+        events[size] = null;
+    }
+
+    private boolean before(int i, int j) {
+        return deadlines[i] < deadlines[j] || (deadlines[i] == deadlines[j] && orders[i] < orders[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(i, parent)) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) return;
+            if (child + 1 < size && before(child + 1, child)) child++;
+            if (!before(child, i)) return;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void move(int from, int to) {
+        deadlines[to] = deadlines[from];
+        orders[to] = orders[from];
+        events[to] = events[from];
+    }
+
+    private void swap(int i, int j) {
+        long deadline = deadlines[i];
+        long order = orders[i];
+        Event event = events[i];
+        move(j, i);
+        deadlines[j] = deadline;
+        orders[j] = order;
+        events[j] = event;
+    }
+}
@@ -0,0 +1,179 @@
+package motorola.cpu;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Historique circulaire des N dernières instructions exécutées, pour
+ * comprendre après coup comment le programme est arrivé à un arrêt.
+ *
+ * Tout est rangé dans des tableaux primitifs alloués une fois : un
+ * enregistrement ne fait que des écritures dans ces tableaux. L'état est
+ * celui d'AVANT l'instruction. CC est gardé sous forme différée (voir
+ * CPU.deferFlags) pour ne pas forcer le calcul des flags à chaque pas.
+ */
+public class ExecutionHistory {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Signature du format binaire
+    public static final int BINARY_MAGIC = 0x48495354; // "HIST"
+
+    private final int capacity;
+
+    private final int[] pcs;
+    private final int[] opcodes;
+    private final int[] accA;
+    private final int[] accB;
+    private final int[] regX;
+    private final int[] regY;
+    private final int[] regU;
+    private final int[] regS;
+    private final long[] cycles;
+
+    // CC différé : valeur brute + opération en attente
+    private final int[] ccRaw;
+    private final int[] flagKinds;
+    private final int[] flagA;
+    private final int[] flagB;
+    private final int[] flagResults;
+    private final int[] flagCarries;
+
+    private int next;       // prochaine case à écrire
+    private long recorded;  // total depuis le dernier clear()
+
+    public ExecutionHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacité d'historique invalide : " + capacity);
+        }
+        this.capacity = capacity;
+        pcs = new int[capacity];
+        opcodes = new int[capacity];
+        accA = new int[capacity];
+        accB = new int[capacity];
+        regX = new int[capacity];
+        regY = new int[capacity];
+        regU = new int[capacity];
+        regS = new int[capacity];
+        cycles = new long[capacity];
+        ccRaw = new int[capacity];
+        flagKinds = new int[capacity];
+        flagA = new int[capacity];
+        flagB = new int[capacity];
+        flagResults = new int[capacity];
+        flagCarries = new int[capacity];
+    }
+
+    // =======================
+    // ===== ENREGISTREMENT ==
+    // =======================
+
+    void record(int pc, int opcode, int a, int b, int x, int y, int u, int s, long cycle,
+                int cc, int flagKind, int fa, int fb, int fr, int carry) {
+        int i = next;
+        pcs[i] = pc;
+        opcodes[i] = opcode;
+        accA[i] = a;
+        accB[i] = b;
+        regX[i] = x;
+        regY[i] = y;
+        regU[i] = u;
+        regS[i] = s;
+        cycles[i] = cycle;
+        ccRaw[i] = cc;
+        flagKinds[i] = flagKind;
+        flagA[i] = fa;
+        flagB[i] = fb;
+        flagResults[i] = fr;
+        flagCarries[i] = carry;
+
+        next = (i + 1 == capacity) ? 0 : i + 1;
+        recorded++;
+    }
+
+    public void clear() {
+        next = 0;
+        recorded = 0;
+    }
+
+    // =======================
+    // ===== LECTURE =========
+    // =======================
+
+    public int getCapacity() { return capacity; }
+
+    /**
+     * Nombre d'entrées disponibles (au plus la capacité)
+     */
+    public int size() { return (int) Math.min(recorded, capacity); }
+
+    public long getRecordedCount() { return recorded; }
+
+    /**
+     * Index de tableau de la i-ème entrée, 0 = la plus ancienne conservée
+     */
+    private int slot(int i) {
+        int oldest = recorded > capacity ? next : 0;
+        int slot = oldest + i;
+        return slot >= capacity ? slot - capacity : slot;
+    }
+
+    public int getPC(int i) { return pcs[slot(i)]; }
+    public int getOpcode(int i) { return opcodes[slot(i)]; }
+    public int getAccA(int i) { return accA[slot(i)]; }
+    public int getAccB(int i) { return accB[slot(i)]; }
+    public int getRegX(int i) { return regX[slot(i)]; }
+    public int getRegY(int i) { return regY[slot(i)]; }
+    public int getRegU(int i) { return regU[slot(i)]; }
+    public int getRegS(int i) { return regS[slot(i)]; }
+    public long getCycles(int i) { return cycles[slot(i)]; }
+
+    public int getRegCC(int i) {
+        int k = slot(i);
+        return CPU.evaluateFlags(ccRaw[k], flagKinds[k], flagA[k], flagB[k], flagResults[k], flagCarries[k]) & 0xFF;
+    }
+
+    // =======================
+    // ===== EXPORT ==========
+    // =======================
+
+    /**
+     * Une ligne par instruction, de la plus ancienne à la plus récente
+     */
+    public void dumpText(PrintStream out) {
+        int size = size();
+        long first = recorded - size;
+        out.printf("===== HISTORIQUE (%d dernières instructions sur %d) =====%n", size, recorded);
+        for (int i = 0; i < size; i++) {
+            out.printf("%8d  PC:%04X  OP:%02X  A:%02X  B:%02X  X:%04X  Y:%04X  U:%04X  S:%04X  CC:%02X  CYC:%d%n",
+                first + i, getPC(i), getOpcode(i), getAccA(i), getAccB(i),
+                getRegX(i), getRegY(i), getRegU(i), getRegS(i), getRegCC(i), getCycles(i));
+        }
+    }
+
+    /**
+     * Format binaire : magic, nombre d'entrées, puis par entrée
+     * PC, opcode, A, B (u8/u16), X, Y, U, S (u16), CC (u8), cycles (s64)
+     */
+    public void dumpBinary(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        int size = size();
+        out.writeInt(BINARY_MAGIC);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeShort(getPC(i));
+            out.writeByte(getOpcode(i));
+            out.writeByte(getAccA(i));
+            out.writeByte(getAccB(i));
+            out.writeShort(getRegX(i));
+            out.writeShort(getRegY(i));
+            out.writeShort(getRegU(i));
+            out.writeShort(getRegS(i));
+            out.writeByte(getRegCC(i));
+            out.writeLong(getCycles(i));
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,78 @@
+package motorola.cpu;
+
+import motorola.memory.Memory;
+
+/**
+ * Une machine complète : sa mémoire, son CPU et le débogueur du CPU.
+ *
+ * Deux machines ne partagent aucun état modifiable (les tables de décodage
+ * et de cycles sont immuables après l'initialisation de leurs classes) :
+ * autant de machines que de cœurs peuvent tourner en parallèle. Une machine
+ * donnée ne doit être utilisée que par un thread à la fois.
+ */
+public final class Machine {
+
+    /**
+     * Raison de la fin de run()
+     */
+    public enum Stop {
+        HALTED("HALT"),
+        WATCHPOINT("watchpoint"),
+        BREAKPOINT("breakpoint"),
+        WAITING("attente d'interruption"),
+        LIMIT("limite atteinte");
+
+        private final String label;
+
+        Stop(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private final Memory memory;
+    private final CPU cpu;
+
+    public Machine() {
+        memory = new Memory();
+        cpu = new CPU(memory);
+    }
+
+    /**
+     * Charge un programme et place PC sur son adresse de chargement
+     */
+    public void load(byte[] program, int address) {
+        if (address < 0 || address + program.length > Memory.MEMORY_SIZE) {
+            throw new IllegalArgumentException(
+                String.format("Programme hors mémoire : %d octets à $%04X", program.length, address)
+            );
+        }
+        memory.loadProgram(program, address);
+        cpu.setRegPC(address);
+    }
+
+    /**
+     * Exécute jusqu'à HALT, un point d'arrêt ou une limite (voir Debugger.run)
+     */
+    public Stop run(long instructionLimit, long cycleLimit) {
+        cpu.getDebugger().run(instructionLimit, cycleLimit);
+        return getStop();
+    }
+
+    public Stop getStop() {
+        Debugger debugger = cpu.getDebugger();
+        if (cpu.isHalted()) return Stop.HALTED;
+        if (debugger.getWatchHitAddress() >= 0) return Stop.WATCHPOINT;
+        if (debugger.isPaused()) return Stop.BREAKPOINT;
+        if (cpu.isWaiting()) return Stop.WAITING;
+        return Stop.LIMIT;
+    }
+
+    public Memory getMemory() { return memory; }
+    public CPU getCPU() { return cpu; }
+    public Debugger getDebugger() { return cpu.getDebugger(); }
+}
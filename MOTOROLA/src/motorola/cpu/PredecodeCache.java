@@ -0,0 +1,178 @@
+package motorola.cpu;
+
+import motorola.instructions.Instruction;
+import motorola.memory.CodeWriteListener;
+import motorola.memory.Memory;
+
+/**
+ * Cache d'instructions prédécodées, une case par adresse de l'espace 64 Ko.
+ *
+ * Chaque case retient l'instruction résolue, le nombre d'octets consommés par
+ * le décodage (marqueur, préfixe, opcode, postbyte EXG/TFR), la longueur totale,
+ * les octets d'opérande et les cycles de base ({@link CycleTable}). Toute
+ * écriture mémoire sur un octet couvert par une case l'invalide, ce qui garde
+ * le code auto-modifiant correct.
+ */
+public class PredecodeCache implements CodeWriteListener {
+
+    // Marqueur indirect + préfixe + opcode + postbyte + offset 16 bits
+    public static final int MAX_LENGTH = 8;
+
+    private final Memory memory;
+
+    private final Instruction[] instructions = new Instruction[Memory.MEMORY_SIZE];
+    private final byte[] headerLengths = new byte[Memory.MEMORY_SIZE];
+    private final byte[] lengths = new byte[Memory.MEMORY_SIZE];
+    private final boolean[] indirect = new boolean[Memory.MEMORY_SIZE];
+    private final int[] operands = new int[Memory.MEMORY_SIZE];
+    private final boolean[] complete = new boolean[Memory.MEMORY_SIZE];
+    private final byte[] cycles = new byte[Memory.MEMORY_SIZE];
+
+    // Notifié après chaque invalidation (ex: traducteur de blocs)
+    private CodeWriteListener invalidationListener;
+
+    private long hits;
+    private long misses;
+
+    public PredecodeCache(Memory memory) {
+        this.memory = memory;
+        memory.setCodeWriteListener(this);
+    }
+
+    // =======================
+    // ===== LECTURE =========
+    // =======================
+
+    /**
+     * Retourne l'instruction prédécodée à l'adresse, ou null (compte hit/miss)
+     */
+    public Instruction lookup(int pc) {
+        Instruction instruction = instructions[pc];
+        if (instruction != null) hits++;
+        else misses++;
+        return instruction;
+    }
+
+    /**
+     * Retourne l'instruction prédécodée sans compter hit/miss
+     */
+    public Instruction get(int pc) { return instructions[pc]; }
+
+    /**
+     * Vrai si la case contient une instruction dont la longueur totale est connue
+     */
+    public boolean isComplete(int pc) { return instructions[pc] != null && complete[pc]; }
+
+    public int getHeaderLength(int pc) { return headerLengths[pc]; }
+    public int getLength(int pc) { return lengths[pc]; }
+    public boolean isIndirect(int pc) { return indirect[pc]; }
+    public int getCycles(int pc) { return cycles[pc]; }
+
+    /**
+     * Octets d'opérande (après l'en-tête), le premier dans les bits de poids fort
+     */
+    public int getOperands(int pc) { return operands[pc]; }
+
+    // =======================
+    // ===== REMPLISSAGE =====
+    // =======================
+
+    /**
+     * Enregistre le résultat du décodage, avant exécution de l'instruction
+     */
+    public void store(int pc, Instruction instruction, int headerLength, boolean indirectMode, int baseCycles) {
+        if (headerLength > MAX_LENGTH) return;
+        // Un périphérique peut renvoyer autre chose à la prochaine lecture : pas de cache
+        for (int i = 0; i < headerLength; i++) {
+            if (memory.getDevice(pc + i) != null) return;
+        }
+        instructions[pc] = instruction;
+        headerLengths[pc] = (byte) headerLength;
+        lengths[pc] = (byte) headerLength;
+        indirect[pc] = indirectMode;
+        cycles[pc] = (byte) baseCycles;
+        operands[pc] = 0;
+        complete[pc] = false;
+        for (int i = 0; i < headerLength; i++) {
+            memory.markCode(pc + i);
+        }
+    }
+
+    /**
+     * Complète la case avec les opérandes, une fois la longueur totale connue
+     */
+    public void complete(int pc, Instruction instruction, int length) {
+        // L'instruction a pu réécrire son propre en-tête pendant l'exécution
+        if (instructions[pc] != instruction) return;
+        if (length > MAX_LENGTH) {
+            instructions[pc] = null;
+            return;
+        }
+        int header = headerLengths[pc];
+        int packed = 0;
+        for (int i = header; i < length; i++) {
+            int address = (pc + i) & 0xFFFF;
+            if (memory.getDevice(address) != null) {
+                instructions[pc] = null;
+                return;
+            }
+            packed = (packed << 8) | memory.peekByte(address);
+            memory.markCode(address);
+        }
+        operands[pc] = packed;
+        lengths[pc] = (byte) length;
+        complete[pc] = true;
+    }
+
+    // =======================
+    // ===== INVALIDATION ====
+    // =======================
+
+    @Override
+    public void codeWritten(int address) {
+        for (int k = 0; k < MAX_LENGTH; k++) {
+            int start = (address - k) & 0xFFFF;
+            if (instructions[start] != null && lengths[start] > k) {
+                instructions[start] = null;
+            }
+        }
+        if (invalidationListener != null) {
+            invalidationListener.codeWritten(address);
+        }
+    }
+
+    @Override
+    public void memoryCleared() {
+        clear();
+        if (invalidationListener != null) {
+            invalidationListener.memoryCleared();
+        }
+    }
+
+    public void setInvalidationListener(CodeWriteListener listener) {
+        this.invalidationListener = listener;
+    }
+
+    public void clear() {
+        for (int i = 0; i < Memory.MEMORY_SIZE; i++) {
+            instructions[i] = null;
+        }
+    }
+
+    // =======================
+    // ===== STATISTIQUES ====
+    // =======================
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+}
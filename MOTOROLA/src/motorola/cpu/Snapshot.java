@@ -0,0 +1,49 @@
+package motorola.cpu;
+
+import motorola.memory.MemoryImage;
+
+/**
+ * État complet de la machine à un instant : registres, état CPU (lignes
+ * d'interruption levées comprises), compteurs et image mémoire. Produit par
+ * {@link CPU#snapshot()}, rejoué par {@link CPU#restore(Snapshot)} autant de
+ * fois que voulu.
+ */
+public final class Snapshot {
+
+    final int accA, accB;
+    final int regX, regY, regU, regS, regPC, regDP, regCC;
+    final boolean halted, waiting, stateStacked, extendedIndirectMode;
+    final long cycles, instructionCount;
+    final int pendingLines;
+    final long[] lineRaisedAt;
+    final MemoryImage memory;
+
+    Snapshot(int accA, int accB, int regX, int regY, int regU, int regS, int regPC, int regDP, int regCC,
+             boolean halted, boolean waiting, boolean stateStacked, boolean extendedIndirectMode,
+             long cycles, long instructionCount, int pendingLines, long[] lineRaisedAt, MemoryImage memory) {
+        this.accA = accA;
+        this.accB = accB;
+        this.regX = regX;
+        this.regY = regY;
+        this.regU = regU;
+        this.regS = regS;
+        this.regPC = regPC;
+        this.regDP = regDP;
+        this.regCC = regCC;
+        this.halted = halted;
+        this.waiting = waiting;
+        this.stateStacked = stateStacked;
+        this.extendedIndirectMode = extendedIndirectMode;
+        this.cycles = cycles;
+        this.instructionCount = instructionCount;
+        this.pendingLines = pendingLines;
+        this.lineRaisedAt = lineRaisedAt.clone();
+        this.memory = memory;
+    }
+
+    public int getRegPC() { return regPC; }
+    public long getCycles() { return cycles; }
+    public long getInstructionCount() { return instructionCount; }
+    public int getPendingInterrupts() { return pendingLines; }
+    public MemoryImage getMemoryImage() { return memory; }
+}
@@ -0,0 +1,242 @@
+package motorola.cpu;
+
+import java.util.Arrays;
+import motorola.memory.Memory;
+import motorola.memory.WriteJournal;
+
+/**
+ * Journal d'annulation pour l'exécution arrière ({@link Debugger#stepBack()}).
+ *
+ * Pour chaque instruction (et chaque entrée en interruption) : l'état des
+ * registres et des lignes d'interruption AVANT exécution, et l'ancienne
+ * valeur de chaque octet de RAM écrit pendant ce pas (reçue de
+ * Memory.writeByte via {@link WriteJournal}). Les deux journaux sont des
+ * anneaux de tableaux primitifs dimensionnés d'après un budget en octets :
+ * les instructions les plus anciennes sont oubliées en premier.
+ *
+ * Au-delà du journal, des snapshots pris toutes les {@link #getCapacity()}
+ * instructions servent de points de reprise : on restaure le plus proche et
+ * on rejoue jusqu'à l'instruction voulue. Le rejeu n'est fidèle que sans
+ * entrée extérieure : il est refusé si des périphériques ont été lus ou
+ * écrits, ou si des événements de l'échéancier ont été déclenchés, depuis
+ * le point de reprise (une interruption levée de l'extérieur entre-temps
+ * n'est pas non plus rejouée).
+ */
+public class UndoLog implements WriteJournal {
+
+    // Coût d'une instruction : 15 int + 1 octet d'état + 3 long + cycles de levée des lignes
+    public static final int RECORD_BYTES = 15 * 4 + 1 + (3 + CPU.LINE_COUNT) * 8;
+    // Coût d'un octet écrit : adresse et ancienne valeur dans un int
+    public static final int WRITE_BYTES = 4;
+
+    public static final int MAX_CHECKPOINTS = 32;
+
+    private static final int MIN_RECORDS = 16;
+    private static final int MIN_WRITES = 64;
+
+    // Bits du tableau d'état
+    private static final int STATE_HALTED = 1;
+    private static final int STATE_WAITING = 2;
+    private static final int STATE_INDIRECT = 4;
+    private static final int STATE_STACKED = 8;
+
+    private final Memory memory;
+
+    // ===== Instructions =====
+    private final int capacity;
+    private final int[] accA, accB, regX, regY, regU, regS, regPC, regDP;
+    private final int[] regCC, flagKinds, flagA, flagB, flagResults, flagCarries;
+    private final byte[] states;
+    private final long[] cycles;
+    private final long[] counts;
+    private final int[] pendingLines;
+    private final long[] lineRaisedAt;  // CPU.LINE_COUNT valeurs par instruction
+    private final long[] writeStarts;   // position dans le journal d'écritures
+    private long recorded;              // total d'instructions enregistrées
+    private int size;                   // instructions encore annulables
+
+    // ===== Écritures : (adresse << 8) | ancienne valeur =====
+    private final int[] writes;
+    private long written;
+
+    // ===== Points de reprise =====
+    private final Snapshot[] checkpoints = new Snapshot[MAX_CHECKPOINTS];
+    // Compteurs d'accès aux périphériques et d'événements déclenchés à chaque point
+    private final long[] checkpointDeviceAccesses = new long[MAX_CHECKPOINTS];
+    private final long[] checkpointEventsFired = new long[MAX_CHECKPOINTS];
+    private int checkpointCount;
+    private long nextCheckpoint;
+
+    public UndoLog(Memory memory, int budgetBytes) {
+        this.memory = memory;
+        // Trois quarts pour les registres, un quart pour les octets écrits
+        capacity = Math.max(MIN_RECORDS, budgetBytes / 4 * 3 / RECORD_BYTES);
+        writes = new int[Math.max(MIN_WRITES, budgetBytes / 4 / WRITE_BYTES)];
+
+        accA = new int[capacity];
+        accB = new int[capacity];
+        regX = new int[capacity];
+        regY = new int[capacity];
+        regU = new int[capacity];
+        regS = new int[capacity];
+        regPC = new int[capacity];
+        regDP = new int[capacity];
+        regCC = new int[capacity];
+        flagKinds = new int[capacity];
+        flagA = new int[capacity];
+        flagB = new int[capacity];
+        flagResults = new int[capacity];
+        flagCarries = new int[capacity];
+        states = new byte[capacity];
+        cycles = new long[capacity];
+        counts = new long[capacity];
+        pendingLines = new int[capacity];
+        lineRaisedAt = new long[capacity * CPU.LINE_COUNT];
+        writeStarts = new long[capacity];
+    }
+
+    // =======================
+    // ===== ENREGISTREMENT ==
+    // =======================
+
+    void record(int a, int b, int x, int y, int u, int s, int pc, int dp,
+                int cc, int kind, int la, int lb, int lr, int lc,
+                boolean halted, boolean waiting, boolean stacked, boolean indirect, long cycle, long count,
+                int pending, long[] raisedAt) {
+        int i = (int) (recorded % capacity);
+        accA[i] = a;
+        accB[i] = b;
+        regX[i] = x;
+        regY[i] = y;
+        regU[i] = u;
+        regS[i] = s;
+        regPC[i] = pc;
+        regDP[i] = dp;
+        regCC[i] = cc;
+        flagKinds[i] = kind;
+        flagA[i] = la;
+        flagB[i] = lb;
+        flagResults[i] = lr;
+        flagCarries[i] = lc;
+        states[i] = (byte) ((halted ? STATE_HALTED : 0) | (waiting ? STATE_WAITING : 0)
+            | (stacked ? STATE_STACKED : 0) | (indirect ? STATE_INDIRECT : 0));
+        cycles[i] = cycle;
+        counts[i] = count;
+        pendingLines[i] = pending;
+        System.arraycopy(raisedAt, 0, lineRaisedAt, i * CPU.LINE_COUNT, CPU.LINE_COUNT);
+        writeStarts[i] = written;
+
+        recorded++;
+        if (size < capacity) size++;
+    }
+
+    @Override
+    public void byteOverwritten(int address, int oldValue) {
+        writes[(int) (written % writes.length)] = (address << 8) | oldValue;
+        written++;
+        // Les écritures des plus anciennes instructions viennent d'être écrasées
+        long oldestKept = written - writes.length;
+        while (size > 0 && writeStarts[(int) ((recorded - size) % capacity)] < oldestKept) {
+            size--;
+        }
+    }
+
+    /**
+     * Prend un point de reprise toutes les getCapacity() instructions
+     */
+    void checkpointIfDue(CPU cpu) {
+        if (cpu.getInstructionCount() < nextCheckpoint) return;
+        if (checkpointCount == MAX_CHECKPOINTS) {
+            System.arraycopy(checkpoints, 1, checkpoints, 0, MAX_CHECKPOINTS - 1);
+            System.arraycopy(checkpointDeviceAccesses, 1, checkpointDeviceAccesses, 0, MAX_CHECKPOINTS - 1);
+            System.arraycopy(checkpointEventsFired, 1, checkpointEventsFired, 0, MAX_CHECKPOINTS - 1);
+            checkpointCount--;
+        }
+        checkpointDeviceAccesses[checkpointCount] = memory.getDeviceAccessCount();
+        checkpointEventsFired[checkpointCount] = cpu.getScheduler().getFiredCount();
+        checkpoints[checkpointCount++] = cpu.snapshot();
+        nextCheckpoint = cpu.getInstructionCount() + capacity;
+    }
+
+    // =======================
+    // ===== ANNULATION ======
+    // =======================
+
+    /**
+     * Annule la dernière instruction enregistrée
+     * @return false si le journal est vide
+     */
+    boolean undo(CPU cpu) {
+        if (size == 0) return false;
+        int i = (int) ((recorded - 1) % capacity);
+
+        // Octets restaurés du plus récent au plus ancien
+        for (long w = written - 1; w >= writeStarts[i]; w--) {
+            int entry = writes[(int) (w % writes.length)];
+            memory.pokeByte(entry >>> 8, entry & 0xFF);
+        }
+        written = writeStarts[i];
+
+        int state = states[i];
+        cpu.restoreState(accA[i], accB[i], regX[i], regY[i], regU[i], regS[i], regPC[i], regDP[i],
+            regCC[i], flagKinds[i], flagA[i], flagB[i], flagResults[i], flagCarries[i],
+            (state & STATE_HALTED) != 0, (state & STATE_WAITING) != 0, (state & STATE_STACKED) != 0,
+            (state & STATE_INDIRECT) != 0,
+            cycles[i], counts[i]);
+        cpu.restoreInterruptLines(pendingLines[i], lineRaisedAt, i * CPU.LINE_COUNT);
+
+        recorded--;
+        size--;
+        return true;
+    }
+
+    /**
+     * Restaure le point de reprise le plus récent qui précède l'instruction
+     * target (compteur d'instructions) ; le journal et les points de reprise
+     * postérieurs sont abandonnés
+     * @return false s'il n'y en a aucun, ou si le rejeu depuis ce point ne
+     *         reproduirait pas l'exécution (périphériques, échéancier) ;
+     *         rien n'est alors modifié
+     */
+    boolean rewindTo(CPU cpu, long target) {
+        int index = checkpointCount - 1;
+        while (index >= 0 && checkpoints[index].getInstructionCount() > target) index--;
+        if (index < 0) return false;
+        if (memory.getDeviceAccessCount() != checkpointDeviceAccesses[index]
+                || cpu.getScheduler().getFiredCount() != checkpointEventsFired[index]) {
+            return false;
+        }
+
+        Snapshot checkpoint = checkpoints[index];
+        checkpointCount = index + 1;
+        recorded = 0;
+        size = 0;
+        written = 0;
+        cpu.restore(checkpoint);
+        nextCheckpoint = checkpoint.getInstructionCount() + capacity;
+        return true;
+    }
+
+    public void clear() {
+        recorded = 0;
+        size = 0;
+        written = 0;
+        Arrays.fill(checkpoints, null);
+        checkpointCount = 0;
+        nextCheckpoint = 0;
+    }
+
+    // =======================
+    // ===== INFOS ===========
+    // =======================
+
+    public int getCapacity() { return capacity; }
+    public int getWriteCapacity() { return writes.length; }
+
+    /**
+     * Nombre d'instructions annulables sans rejeu
+     */
+    public int size() { return size; }
+
+    public int getCheckpointCount() { return checkpointCount; }
+}
@@ -1,13 +1,32 @@
 package motorola.gui;
 
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.swing.*;
 import motorola.assembler.Assembler;
 import motorola.cpu.CPU;
+import motorola.cpu.ClockPacer;
 import motorola.cpu.Debugger;
+import motorola.cpu.EventScheduler;
 
 public class ControlPanel extends JPanel {
 
+    // Rafraîchissements de l'interface au plus REFRESH_HZ fois par seconde
+    private static final int REFRESH_HZ = 30;
+    private static final long FRAME_NANOS = 1_000_000_000L / REFRESH_HZ;
+
+    // Mode visuel : pause entre deux instructions
+    private static final int VISUAL_DELAY_MS = 100;
+
+    // Mode turbo : instructions entre deux regards sur l'horloge
+    private static final int TURBO_BATCH = 10_000;
+
+    // Mode temps réel : horloges proposées
+    private static final String[] CLOCK_LABELS = { "1 MHz", "1.5 MHz", "2 MHz" };
+    private static final long[] CLOCKS = {
+        ClockPacer.CLOCK_1_MHZ, ClockPacer.CLOCK_1_5_MHZ, ClockPacer.CLOCK_2_MHZ
+    };
+
     private final CPU cpu;
     private final RegisterPanel registerPanel;
     private final MemoryPanel memoryPanel;
@@ -18,8 +37,12 @@ public class ControlPanel extends JPanel {
     
     private JButton stepBtn, runBtn, pauseBtn, resetBtn;
     private JButton compileBtn, addBreakpointBtn, clearBreakpointsBtn;
+    private JButton addWatchpointBtn, clearWatchpointsBtn;
     private JLabel statusLabel;
-    private boolean running = false;
+    private JComboBox<RunSpeed> speedBox;
+    private JSpinner rateSpinner;
+    private JComboBox<String> clockBox;
+    private volatile boolean running = false;
     private boolean compiled = false;
     private int programSize = 0; // Store the size of compiled program
 
@@ -77,6 +100,28 @@ public class ControlPanel extends JPanel {
         executionPanel.add(pauseBtn);
         executionPanel.add(resetBtn);
 
+        // Panel 2b: Vitesse d'exécution
+        JPanel speedPanel = new JPanel();
+        speedPanel.setBackground(Theme.PANEL_LIGHT);
+
+        speedBox = new JComboBox<>(RunSpeed.values());
+        rateSpinner = new JSpinner(new SpinnerNumberModel(1000, 1, 100_000_000, 100));
+        rateSpinner.setEnabled(false);
+        clockBox = new JComboBox<>(CLOCK_LABELS);
+        clockBox.setEnabled(false);
+        speedBox.addActionListener(e -> {
+            rateSpinner.setEnabled(speedBox.getSelectedItem() == RunSpeed.RATE);
+            clockBox.setEnabled(speedBox.getSelectedItem() == RunSpeed.REALTIME);
+        });
+
+        JLabel speedLabel = new JLabel("Vitesse :");
+        speedLabel.setFont(new Font("Monospaced", Font.BOLD, 14));
+        speedLabel.setForeground(Theme.ACCENT_BRIGHT);
+        speedPanel.add(speedLabel);
+        speedPanel.add(speedBox);
+        speedPanel.add(rateSpinner);
+        speedPanel.add(clockBox);
+
         // Panel 3: Breakpoint buttons
         JPanel breakpointPanel = new JPanel();
         breakpointPanel.setBackground(Theme.PANEL_LIGHT);
@@ -90,8 +135,19 @@ public class ControlPanel extends JPanel {
             statusLabel.setText("Status: Breakpoints cleared");
         });
         
+        addWatchpointBtn = new JButton("Add Watchpoint");
+        clearWatchpointsBtn = new JButton("Clear Watchpoints");
+
+        addWatchpointBtn.addActionListener(e -> handleAddWatchpoint());
+        clearWatchpointsBtn.addActionListener(e -> {
+            debugger.clearWatchpoints();
+            statusLabel.setText("Status: Watchpoints cleared");
+        });
+
         breakpointPanel.add(addBreakpointBtn);
         breakpointPanel.add(clearBreakpointsBtn);
+        breakpointPanel.add(addWatchpointBtn);
+        breakpointPanel.add(clearWatchpointsBtn);
 
         // Status label
         statusLabel = new JLabel("Status: Ready - Compilez d'abord");
@@ -100,6 +156,7 @@ public class ControlPanel extends JPanel {
 
         add(compilationPanel);
         add(executionPanel);
+        add(speedPanel);
         add(breakpointPanel);
         add(Box.createVerticalStrut(10));
         add(statusLabel);
@@ -211,38 +268,30 @@ public class ControlPanel extends JPanel {
             stepBtn.setEnabled(false);
             compileBtn.setEnabled(false);
             statusLabel.setText("Status: Exécution en cours...");
+            debugger.setPaused(false);
+            debugger.clearWatchHit();
+
+            RunSpeed speed = (RunSpeed) speedBox.getSelectedItem();
+            int rate = ((Number) rateSpinner.getValue()).intValue();
+            long clock = CLOCKS[clockBox.getSelectedIndex()];
+            runStatus = null;
 
             Thread runThread = new Thread(() -> {
-                while (running && !cpu.isHalted()) {
-                    // Stop if PC reaches end of program
-                    if (cpu.getRegPC() >= programSize) {
-                        running = false;
+                switch (speed) {
+                    case VISUAL:
+                        runVisual();
                         break;
-                    }
-                    
-                    // Execute the instruction directly
-                    cpu.executeInstruction();
-                    
-                    // Refresh GUI on EDT (Event Dispatch Thread)
-                    SwingUtilities.invokeLater(() -> {
-                        refresh();
-                        repaint();
-                    });
-                    
-                    // Check if breakpoint hit
-                    if (debugger.getBreakpoints().contains(cpu.getRegPC())) {
-                        running = false;
+                    case RATE:
+                        runAtRate(rate);
                         break;
-                    }
-                    
-                    try {
-                        Thread.sleep(100); // Délai pour visualiser
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
+                    case REALTIME:
+                        runRealTime(clock);
                         break;
-                    }
+                    default:
+                        runTurbo();
                 }
-                
+                running = false;
+
                 // Final refresh when done
                 SwingUtilities.invokeLater(() -> {
                     running = false;
@@ -251,8 +300,11 @@ public class ControlPanel extends JPanel {
                     compileBtn.setEnabled(true);
                     refresh();
                     repaint();
+                    String watch = debugger.getWatchHitAddress() >= 0
+                        ? " (watchpoint : " + debugger.getWatchHitDescription() + ")" : "";
                     statusLabel.setText("Status: Arrêté à PC=" + 
-                        String.format("0x%04X", cpu.getRegPC()));
+                        String.format("0x%04X", cpu.getRegPC()) + watch);
+                    if (runStatus != null) statusLabel.setToolTipText(runStatus);
                 });
             });
             runThread.setDaemon(true);
@@ -260,6 +312,149 @@ public class ControlPanel extends JPanel {
         }
     }
 
+    // =======================
+    // ===== BOUCLES RUN =====
+    // =======================
+
+    // Un seul rafraîchissement en attente sur l'EDT à la fois
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private long lastRefresh;
+
+    // Texte d'état publié avec le prochain rafraîchissement (null = inchangé)
+    private volatile String runStatus;
+
+    // Le dernier runBatch() s'est arrêté (HALT, fin, attente, watchpoint, breakpoint)
+    private boolean batchStopped;
+
+    /**
+     * Une instruction, affichage, pause : pour suivre le programme à l'œil
+     */
+    private void runVisual() {
+        while (true) {
+            runBatch(1);
+            if (batchStopped) return;
+            publishRefresh(true);
+            try {
+                Thread.sleep(VISUAL_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Débit fixé en instructions par seconde, par lots d'une trame
+     */
+    private void runAtRate(int instructionsPerSecond) {
+        int batch = Math.max(1, instructionsPerSecond / REFRESH_HZ);
+        long start = System.nanoTime();
+        long executed = 0;
+        while (true) {
+            executed += runBatch(batch);
+            publishRefresh(false);
+            if (batchStopped) return;
+
+            // Date à laquelle ce nombre d'instructions aurait dû être atteint
+            long deadline = start + executed * 1_000_000_000L / instructionsPerSecond;
+            long wait = deadline - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Vitesse d'un vrai 6809 : un budget de cycles par créneau, puis pause
+     * (voir ClockPacer) ; l'écart et l'horloge tenue s'affichent dans l'état
+     */
+    private void runRealTime(long clockHz) {
+        ClockPacer pacer = new ClockPacer(clockHz);
+        pacer.start(cpu.getCycles());
+        while (true) {
+            boolean stopped = runUntilCycles(pacer.nextSliceEnd());
+            pacer.endSlice(cpu.getCycles());
+            runStatus = "Status: Temps réel - " + pacer.getReport();
+            publishRefresh(false);
+            if (stopped) return;
+        }
+    }
+
+    /**
+     * @return true si l'exécution s'est arrêtée avant d'atteindre target
+     */
+    private boolean runUntilCycles(long target) {
+        while (cpu.getCycles() < target) {
+            runBatch(1);
+            if (batchStopped) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Aussi vite que possible ; l'affichage suit au rythme des trames
+     */
+    private void runTurbo() {
+        while (true) {
+            runBatch(TURBO_BATCH);
+            if (batchStopped) return;
+            publishRefresh(false);
+        }
+    }
+
+    /**
+     * Exécute jusqu'à count instructions ; batchStopped indique si
+     * l'exécution doit s'arrêter (la dernière instruction comptée peut être
+     * celle qui a déclenché l'arrêt)
+     * @return le nombre exécuté
+     */
+    private int runBatch(int count) {
+        batchStopped = true;
+        EventScheduler events = cpu.getScheduler();
+        for (int i = 0; i < count; i++) {
+            if (!running || cpu.isHalted()) return i;
+            if (cpu.getCycles() >= events.nextDeadline()) {
+                events.fireDue(cpu.getCycles());
+            }
+            // Stop if PC reaches end of program
+            if (cpu.getRegPC() >= programSize) return i;
+
+            cpu.executeInstruction();
+            // En attente (SYNC / CWAI) : le temps avance jusqu'au prochain événement
+            if (cpu.isWaiting() && !cpu.idleUntilNextEvent(Long.MAX_VALUE)) return i + 1;
+
+            // Watchpoint déclenché pendant l'instruction, ou breakpoint atteint
+            if (debugger.getWatchHitAddress() >= 0 || debugger.isBreakpoint(cpu.getRegPC())) {
+                return i + 1;
+            }
+        }
+        batchStopped = false;
+        return count;
+    }
+
+    /**
+     * Demande un rafraîchissement à l'EDT, au plus un par trame et jamais
+     * deux en attente (sauf force : mode visuel)
+     */
+    private void publishRefresh(boolean force) {
+        long now = System.nanoTime();
+        if (!force && now - lastRefresh < FRAME_NANOS) return;
+        if (!refreshPending.compareAndSet(false, true)) return;
+        lastRefresh = now;
+        SwingUtilities.invokeLater(() -> {
+            refreshPending.set(false);
+            refresh();
+            repaint();
+            String status = runStatus;
+            if (status != null && running) statusLabel.setText(status);
+        });
+    }
+
     private void handlePause() {
         running = false;
         runBtn.setEnabled(true);
@@ -303,6 +498,41 @@ public class ControlPanel extends JPanel {
         }
     }
 
+    /**
+     * Saisie : "C000" ou "C000-C0FF" (écriture), préfixe "R" pour la lecture,
+     * "C000=42" pour l'écriture d'une valeur précise
+     */
+    private void handleAddWatchpoint() {
+        String input = JOptionPane.showInputDialog(this,
+            "Watchpoint (hex) : C000, C000-C0FF, R C000 (lecture), C000=42 (valeur)", "0000");
+        if (input == null || input.trim().isEmpty()) return;
+        try {
+            String text = input.trim().toUpperCase();
+            boolean read = text.startsWith("R");
+            if (read) text = text.substring(1).trim();
+
+            int equals = text.indexOf('=');
+            if (equals >= 0) {
+                int addr = Integer.parseInt(text.substring(0, equals).trim(), 16) & 0xFFFF;
+                int value = Integer.parseInt(text.substring(equals + 1).trim(), 16) & 0xFF;
+                debugger.addValueWatchpoint(addr, value);
+                statusLabel.setText(String.format("Status: Watchpoint %04X=%02X added", addr, value));
+                return;
+            }
+
+            int dash = text.indexOf('-');
+            int start = Integer.parseInt(dash >= 0 ? text.substring(0, dash).trim() : text, 16) & 0xFFFF;
+            int end = dash >= 0 ? Integer.parseInt(text.substring(dash + 1).trim(), 16) & 0xFFFF : start;
+            if (read) debugger.addReadWatchpoint(start, end);
+            else debugger.addWriteWatchpoint(start, end);
+            statusLabel.setText(String.format("Status: %s watchpoint %04X-%04X added",
+                read ? "Read" : "Write", start, end));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this,
+                "Invalid watchpoint", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void refresh() {
         registerPanel.refresh();
         memoryPanel.refresh();
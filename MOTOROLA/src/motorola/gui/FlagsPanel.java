@@ -15,6 +15,13 @@ public class FlagsPanel extends JPanel {
         CPU.CC_N, CPU.CC_Z, CPU.CC_V, CPU.CC_C
     };
 
+    private static final Color FLAG_SET = new Color(255, 182, 193);    // Baby pink
+    private static final Color FLAG_CLEAR = new Color(120, 120, 125);  // Gris sombre
+
+    // CC affiché à la trame précédente (-1 : rien d'affiché) et flags surlignés
+    private int shownCC = -1;
+    private int highlightedMask;
+
     public FlagsPanel(CPU cpu) {
         this.cpu = cpu;
         setBackground(Theme.PANEL_LIGHTER);
@@ -55,17 +62,29 @@ public class FlagsPanel extends JPanel {
     }
 
     public void refresh() {
-        // Mettre à jour les indicateurs de couleur
+        int cc = cpu.peekRegCC();
+        // Les flags qui changent sont surlignés jusqu'à la trame suivante
+        int changed = shownCC < 0 ? 0 : (cc ^ shownCC) & 0xFF;
+        int updated = shownCC < 0 ? 0xFF : changed;
+
         for (int i = 0; i < 8; i++) {
-            if (cpu.isFlagSet(flagMasks[i])) {
-                // Flag à 1 : point plein baby pink
-                flagIndicators[i].setText("●");
-                flagIndicators[i].setForeground(new Color(255, 182, 193));  // Baby pink
-            } else {
-                // Flag à 0 : point vide gris sombre
-                flagIndicators[i].setText("○");
-                flagIndicators[i].setForeground(new Color(120, 120, 125));
+            int mask = flagMasks[i];
+            if ((updated & mask) != 0) {
+                if ((cc & mask) != 0) {
+                    // Flag à 1 : point plein baby pink
+                    flagIndicators[i].setText("●");
+                    flagIndicators[i].setForeground(FLAG_SET);
+                } else {
+                    // Flag à 0 : point vide gris sombre
+                    flagIndicators[i].setText("○");
+                    flagIndicators[i].setForeground(FLAG_CLEAR);
+                }
+            }
+            if (((changed ^ highlightedMask) & mask) != 0) {
+                flagLabels[i].setForeground((changed & mask) != 0 ? Theme.CHANGED : Color.BLACK);
             }
         }
+        shownCC = cc;
+        highlightedMask = changed;
     }
 }
@@ -2,18 +2,61 @@ package motorola.gui;
 
 import java.awt.*;
 import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableColumn;
+import motorola.memory.DirtyLineSet;
 import motorola.memory.Memory;
 
+/**
+ * Vue mémoire sur les 64 Ko complets.
+ *
+ * La table est virtuelle : JTable ne demande au modèle que les cellules des
+ * lignes visibles, et les octets sont lus à ce moment-là. refresh() relève
+ * les lignes écrites depuis la trame précédente et ne redessine que celles
+ * qui sont visibles ; les autres seront lues à jour en défilant.
+ */
 public class MemoryPanel extends JPanel {
 
-    private final JTextArea area;
+    private static final int BYTES_PER_ROW = Memory.LINE_SIZE; // une ligne modifiée = une ligne de table
+    private static final int ROW_COUNT = Memory.MEMORY_SIZE / BYTES_PER_ROW;
+    private static final int ROWS_TO_DISPLAY = 24; // hauteur initiale de la vue
+
+    // Colonnes : adresse, 16 octets, ASCII
+    private static final int COL_ADDRESS = 0;
+    private static final int COL_ASCII = BYTES_PER_ROW + 1;
+
+    // Textes précalculés : aucun String.format au rendu
+    private static final String[] HEX = new String[256];
+    private static final String[] ROW_ADDRESSES = new String[ROW_COUNT];
+    private static final String[] COLUMN_NAMES = new String[BYTES_PER_ROW + 2];
+    static {
+        char[] digits = "0123456789ABCDEF".toCharArray();
+        for (int i = 0; i < 256; i++) {
+            HEX[i] = new String(new char[] { digits[i >> 4], digits[i & 0x0F] });
+        }
+        for (int row = 0; row < ROW_COUNT; row++) {
+            int address = row * BYTES_PER_ROW;
+            ROW_ADDRESSES[row] = HEX[address >> 8] + HEX[address & 0xFF];
+        }
+        COLUMN_NAMES[COL_ADDRESS] = "Adresse";
+        for (int i = 0; i < BYTES_PER_ROW; i++) {
+            COLUMN_NAMES[i + 1] = HEX[i];
+        }
+        COLUMN_NAMES[COL_ASCII] = "ASCII";
+    }
+
+    private final JTable table;
+    private final MemoryTableModel model;
     private final JTextField addressField;
     private final Memory memory;
-    private int startAddress = 0x0000;
-    private static final int ROWS_TO_DISPLAY = 24; // 384 bytes
+
+    // Lignes écrites depuis la dernière trame
+    private final DirtyLineSet dirtyLines;
 
     public MemoryPanel(Memory memory) {
         this.memory = memory;
+        this.dirtyLines = memory.trackDirtyLines(true);
 
         setLayout(new BorderLayout());
         setBorder(Theme.createTitledBorder("MÉMOIRE - LECTURE SEULE (0x0000 - 0xFFFF)"));
@@ -23,25 +66,26 @@ public class MemoryPanel extends JPanel {
         JPanel controlPanel = new JPanel();
         controlPanel.setLayout(new FlowLayout(FlowLayout.LEFT));
         controlPanel.setBackground(Theme.PANEL);
-        
+
         JLabel addrLabel = new JLabel("Aller à l'adresse:");
         addrLabel.setFont(new Font("Monospaced", Font.BOLD, 11));
         addrLabel.setForeground(new Color(40, 20, 5));
         addressField = new JTextField("0000", 10);
-    addressField.setFont(Theme.FONT_NORMAL);
-    // even lighter baby pink background for the address field
-    addressField.setBackground(new Color(255, 245, 251));
+        addressField.setFont(Theme.FONT_NORMAL);
+        // even lighter baby pink background for the address field
+        addressField.setBackground(new Color(255, 245, 251));
         addressField.setForeground(new Color(40, 20, 5));
-        
+        addressField.addActionListener(e -> goToAddress());
+
         JButton goButton = new JButton("Aller");
         goButton.addActionListener(e -> goToAddress());
-        
+
         // Scroll buttons
         JButton upButton = new JButton("▲ Haut");
         JButton downButton = new JButton("▼ Bas");
-        upButton.addActionListener(e -> scrollMemory(-16));
-        downButton.addActionListener(e -> scrollMemory(16));
-        
+        upButton.addActionListener(e -> scrollRows(-1));
+        downButton.addActionListener(e -> scrollRows(1));
+
         controlPanel.add(addrLabel);
         controlPanel.add(addressField);
         controlPanel.add(goButton);
@@ -49,72 +93,140 @@ public class MemoryPanel extends JPanel {
         controlPanel.add(upButton);
         controlPanel.add(downButton);
 
-        // Text area - READ ONLY
-        area = new JTextArea(ROWS_TO_DISPLAY, 60);
-    area.setFont(new Font("Monospaced", Font.PLAIN, 11));
-        area.setEditable(false);  // Ensure it's completely read-only
-    // even lighter baby pink background for the memory dump area
-    area.setBackground(new Color(255, 245, 251));
-        area.setForeground(new Color(40, 20, 5));
-        area.setLineWrap(false);
+        // Table - READ ONLY
+        model = new MemoryTableModel();
+        table = new JTable(model);
+        table.setFont(new Font("Monospaced", Font.PLAIN, 11));
+        // even lighter baby pink background for the memory dump area
+        table.setBackground(new Color(255, 245, 251));
+        table.setForeground(new Color(40, 20, 5));
+        table.setShowGrid(false);
+        table.setIntercellSpacing(new Dimension(0, 0));
+        table.setRowHeight(table.getFontMetrics(table.getFont()).getHeight() + 2);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        table.setCellSelectionEnabled(true);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.getTableHeader().setResizingAllowed(false);
+
+        // Un seul renderer partagé par toutes les cellules
+        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer();
+        renderer.setHorizontalAlignment(SwingConstants.CENTER);
+        table.setDefaultRenderer(Object.class, renderer);
 
-        JScrollPane scrollPane = new JScrollPane(area,
+        FontMetrics metrics = table.getFontMetrics(table.getFont());
+        int hexWidth = metrics.stringWidth("000");
+        for (int col = 0; col < COLUMN_NAMES.length; col++) {
+            TableColumn column = table.getColumnModel().getColumn(col);
+            int width = col == COL_ADDRESS ? metrics.stringWidth("Adresse ")
+                : col == COL_ASCII ? metrics.stringWidth("0000000000000000  ")
+                : hexWidth + 4;
+            column.setMinWidth(width);
+            column.setMaxWidth(width);
+            column.setPreferredWidth(width);
+        }
+        table.setPreferredScrollableViewportSize(new Dimension(
+            table.getPreferredSize().width, table.getRowHeight() * ROWS_TO_DISPLAY));
+
+        JScrollPane scrollPane = new JScrollPane(table,
             JScrollPane.VERTICAL_SCROLLBAR_ALWAYS,
-            JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+            JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        scrollPane.getVerticalScrollBar().setUnitIncrement(table.getRowHeight());
 
         add(controlPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
-        
+
         refresh();
     }
 
     private void goToAddress() {
         try {
             String input = addressField.getText().trim();
-            startAddress = Integer.parseInt(input, 16) & 0xFFFF;
-            refresh();
+            int address = Integer.parseInt(input, 16) & 0xFFFF;
+            showRow(address / BYTES_PER_ROW);
+            table.changeSelection(address / BYTES_PER_ROW, address % BYTES_PER_ROW + 1, false, false);
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "Format d'adresse invalide (utilisez hexadécimal)");
         }
     }
 
-    private void scrollMemory(int delta) {
-        startAddress = (startAddress + delta) & 0xFFFF;
-        addressField.setText(String.format("%04X", startAddress));
-        refresh();
+    private void scrollRows(int delta) {
+        int first = table.rowAtPoint(table.getVisibleRect().getLocation());
+        int row = Math.max(0, Math.min(ROW_COUNT - 1, Math.max(first, 0) + delta));
+        showRow(row);
+        addressField.setText(ROW_ADDRESSES[row]);
     }
 
+    // Fait de la ligne la première visible
+    private void showRow(int row) {
+        Rectangle target = table.getCellRect(row, 0, true);
+        Rectangle visible = table.getVisibleRect();
+        target.height = visible.height;
+        table.scrollRectToVisible(target);
+    }
+
+    /**
+     * Redessine les lignes visibles écrites depuis la trame précédente
+     */
     public void refresh() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Adresse  : 00 01 02 03 04 05 06 07  08 09 0A 0B 0C 0D 0E 0F  |ASCII|\n");
-        sb.append("─".repeat(76)).append("\n");
-        
-        for (int i = 0; i < ROWS_TO_DISPLAY; i++) {
-            int addr = startAddress + (i * 16);
-            if (addr >= 0x10000) break;
-            
-            sb.append(String.format("%04X     : ", addr));
-            
-            // Hex display
-            for (int j = 0; j < 16; j++) {
-                int byteVal = memory.readByte(addr + j) & 0xFF;
-                sb.append(String.format("%02X ", byteVal));
-                if (j == 7) sb.append(" "); // Mid-row separator
+        dirtyLines.fetchAndClear();
+        Rectangle visible = table.getVisibleRect();
+        int first = table.rowAtPoint(visible.getLocation());
+        int last = table.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (first < 0) first = 0;
+        if (last < 0) last = Math.min(ROW_COUNT - 1, first + ROWS_TO_DISPLAY);
+
+        // Lignes consécutives regroupées en un seul événement
+        int row = dirtyLines.nextDirtyLine(first);
+        while (row >= 0 && row <= last) {
+            int end = row;
+            while (end < last && dirtyLines.isDirty(end + 1)) end++;
+            model.fireTableRowsUpdated(row, end);
+            row = dirtyLines.nextDirtyLine(end + 1);
+        }
+    }
+
+    // =======================
+    // ===== MODÈLE ==========
+    // =======================
+
+    private final class MemoryTableModel extends AbstractTableModel {
+
+        private final char[] ascii = new char[BYTES_PER_ROW];
+
+        @Override
+        public int getRowCount() {
+            return ROW_COUNT;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            int base = row * BYTES_PER_ROW;
+            if (column == COL_ADDRESS) {
+                return ROW_ADDRESSES[row];
             }
-            
-            // ASCII display
-            sb.append(" |");
-            for (int j = 0; j < 16; j++) {
-                int byteVal = memory.readByte(addr + j) & 0xFF;
-                if (byteVal >= 32 && byteVal < 127) {
-                    sb.append((char) byteVal);
-                } else {
-                    sb.append(".");
+            if (column == COL_ASCII) {
+                for (int i = 0; i < BYTES_PER_ROW; i++) {
+                    int value = memory.peekByte(base + i);
+                    ascii[i] = value >= 32 && value < 127 ? (char) value : '.';
                 }
+                return new String(ascii);
             }
-            sb.append("|\n");
+            return HEX[memory.peekByte(base + column - 1)];
+        }
+
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
         }
-        
-        area.setText(sb.toString());
     }
 }
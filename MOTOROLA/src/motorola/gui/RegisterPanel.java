@@ -6,10 +6,21 @@ import motorola.cpu.CPU;
 
 public class RegisterPanel extends JPanel {
 
+    private static final Color REGISTER_BACKGROUND = new Color(30, 50, 60);
+
     private final CPU cpu;
     private JLabel aLabel, bLabel, dLabel, xLabel, yLabel, uLabel, sLabel, pcLabel, ccLabel;
     private JTextField dpField;
 
+    // Dernières valeurs affichées, dans l'ordre de labels : seuls les
+    // registres qui changent sont réécrits, et surlignés pendant une trame
+    private final JLabel[] labels;
+    private final int[] digits = { 2, 2, 4, 4, 4, 4, 4, 4, 2 };
+    private final int[] current = new int[9];
+    private final int[] shown = new int[9];
+    private final boolean[] highlighted = new boolean[9];
+    private boolean firstRefresh = true;
+
     public RegisterPanel(CPU cpu) {
         this.cpu = cpu;
 
@@ -35,6 +46,7 @@ public class RegisterPanel extends JPanel {
         addDPDisplay();
         ccLabel = addRegisterDisplay("CC");
 
+        labels = new JLabel[] { aLabel, bLabel, dLabel, xLabel, yLabel, uLabel, sLabel, pcLabel, ccLabel };
         refresh();
     }
 
@@ -93,7 +105,7 @@ public class RegisterPanel extends JPanel {
         valueLabel.setFont(new Font("Monospaced", Font.BOLD, 12));
         valueLabel.setForeground(Theme.ACCENT_BRIGHT);
         valueLabel.setOpaque(true);
-        valueLabel.setBackground(new Color(30, 50, 60));
+        valueLabel.setBackground(REGISTER_BACKGROUND);
         valueLabel.setBorder(BorderFactory.createLineBorder(Theme.BORDER));
 
         add(nameLabel);
@@ -103,19 +115,39 @@ public class RegisterPanel extends JPanel {
     }
 
     public void refresh() {
-        aLabel.setText(String.format("0x%02X", cpu.getAccA()));
-        bLabel.setText(String.format("0x%02X", cpu.getAccB()));
-        dLabel.setText(String.format("0x%04X", cpu.getAccD()));
-        xLabel.setText(String.format("0x%04X", cpu.getRegX()));
-        yLabel.setText(String.format("0x%04X", cpu.getRegY()));
-        uLabel.setText(String.format("0x%04X", cpu.getRegU()));
-        sLabel.setText(String.format("0x%04X", cpu.getRegS()));
-        pcLabel.setText(String.format("0x%04X", cpu.getRegPC()));
+        current[0] = cpu.getAccA();
+        current[1] = cpu.getAccB();
+        current[2] = cpu.getAccD();
+        current[3] = cpu.getRegX();
+        current[4] = cpu.getRegY();
+        current[5] = cpu.getRegU();
+        current[6] = cpu.getRegS();
+        current[7] = cpu.getRegPC();
         
         // NE PAS mettre à jour DP depuis le CPU - laisser l'utilisateur le contrôler via le GUI
         // DP est géré indépendamment par l'utilisateur qui tape dans le champ
         
-        ccLabel.setText(String.format("0x%02X", cpu.getRegCC()));
+        current[8] = cpu.peekRegCC();
+
+        for (int i = 0; i < labels.length; i++) {
+            if (firstRefresh || current[i] != shown[i]) {
+                shown[i] = current[i];
+                labels[i].setText(digits[i] == 2
+                    ? String.format("0x%02X", current[i])
+                    : String.format("0x%04X", current[i]));
+                setHighlighted(i, !firstRefresh);
+            } else if (highlighted[i]) {
+                // Inchangé depuis la trame précédente : fin du surlignage
+                setHighlighted(i, false);
+            }
+        }
+        firstRefresh = false;
+    }
+
+    private void setHighlighted(int index, boolean on) {
+        if (highlighted[index] == on) return;
+        highlighted[index] = on;
+        labels[index].setBackground(on ? Theme.CHANGED : REGISTER_BACKGROUND);
     }
 
     public void resetDP() {
@@ -0,0 +1,23 @@
+package motorola.gui;
+
+/**
+ * Vitesse d'exécution du bouton RUN
+ */
+public enum RunSpeed {
+
+    VISUAL("Visuel (pas à pas)"),   // une instruction, affichage, pause
+    RATE("Instructions/s"),         // débit réglable
+    REALTIME("Temps réel"),         // horloge nominale d'un vrai 6809
+    TURBO("Turbo");                 // sans limite, affichage plafonné
+
+    private final String label;
+
+    RunSpeed(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
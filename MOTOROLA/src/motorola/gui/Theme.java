@@ -24,6 +24,7 @@ public class Theme {
     public static final Color ACCENT_BRIGHT = new Color(255, 200, 215);     // Baby pink clair pour accents
     
     public static final Color BORDER = new Color(220, 160, 180);            // Bordure baby pink-gris
+    public static final Color CHANGED = new Color(110, 45, 75);             // Rose sombre : valeur qui vient de changer
     
     // Fonts
     public static final Font FONT_NORMAL = new Font("Monospaced", Font.PLAIN, 12);
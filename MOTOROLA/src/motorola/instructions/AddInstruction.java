@@ -87,12 +87,8 @@ public class AddInstruction implements Instruction {
     }
 
     private void updateFlags(CPU cpu, int a, int b, int result) {
-        int finalValue = result & 0xFF;
-        cpu.setFlag(CPU.CC_N, (finalValue & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, finalValue == 0);
-        cpu.setFlag(CPU.CC_V, ((a ^ result) & (b ^ result) & 0x80) != 0);
-        cpu.setFlag(CPU.CC_C, (result & 0x100) != 0);
-        cpu.setFlag(CPU.CC_H, ((a & 0x0F) + (b & 0x0F)) > 0x0F);
+        // N, Z, V, C, H calculés à la demande par le CPU
+        cpu.deferFlags(CPU.FLAGS_ADD8, a, b, result);
     }
 
     @Override
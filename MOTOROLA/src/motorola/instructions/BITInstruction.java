@@ -49,9 +49,7 @@ public class BITInstruction implements Instruction {
 
         int result = (acc & operand) & 0xFF;
 
-        cpu.setFlag(CPU.CC_N, (result & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, result == 0);
-        cpu.setFlag(CPU.CC_V, false); // BIT clears V
+        cpu.deferFlags(CPU.FLAGS_LOGIC8, 0, 0, result); // BIT clears V
     }
 
     @Override
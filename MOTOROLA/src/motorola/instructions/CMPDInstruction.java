@@ -56,11 +56,8 @@ public class CMPDInstruction implements Instruction {
         int result = d - operand;
         int finalValue = result & 0xFFFF;
 
-        // Update flags (D is NOT modified)
-        cpu.setFlag(CPU.CC_N, (finalValue & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, finalValue == 0);
-        cpu.setFlag(CPU.CC_V, ((d ^ operand) & (d ^ result) & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_C, (result & 0x10000) != 0);
+        // Update flags (D is NOT modified), calculés à la demande
+        cpu.deferFlags(CPU.FLAGS_ARITH16, d, operand, result);
     }
 
     @Override
@@ -47,13 +47,8 @@ public class CMPInstruction implements Instruction {
                 throw new IllegalStateException("Mode invalide");
         }
 
-        int result = (acc - operand) & 0xFF;
-
-        cpu.setFlag(CPU.CC_N, (result & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, result == 0);
-        cpu.setFlag(CPU.CC_V, ((acc ^ operand) & (acc ^ result) & 0x80) != 0);
-        cpu.setFlag(CPU.CC_C, acc < operand);
-        cpu.setFlag(CPU.CC_H, ((acc & 0x0F) - (operand & 0x0F)) < 0);
+        // N, Z, V, C (acc < operand), H calculés à la demande par le CPU
+        cpu.deferFlags(CPU.FLAGS_SUB8, acc, operand, acc - operand);
     }
 
     @Override
@@ -8,8 +8,12 @@ public class CWAIInstruction implements Instruction {
 
     @Override
     public void execute(CPU cpu, Memory memory) {
-        // Empiler CC et attendre interruption
-        cpu.pushByte(cpu.getRegCC());
+        // CC &= masque, puis état complet empilé (E=1) avant d'attendre :
+        // l'interruption n'aura plus qu'à lire son vecteur
+        int mask = cpu.fetchByte();
+        cpu.setRegCC((cpu.getRegCC() & mask) | CPU.CC_E);
+        cpu.pushEntireState();
+        cpu.setStateStacked(true);
         cpu.setWaiting(true);
     }
 
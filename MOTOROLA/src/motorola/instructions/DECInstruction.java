@@ -40,9 +40,7 @@ public class DECInstruction implements Instruction {
         int result = (value - 1) & 0xFF;
         memory.writeByte(addr, result);
 
-        cpu.setFlag(CPU.CC_N, (result & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, result == 0);
-        cpu.setFlag(CPU.CC_V, value == 0x80);
+        cpu.deferFlags(CPU.FLAGS_DEC8, value, 1, result);
     }
 
     @Override
@@ -52,9 +52,7 @@ public class EORInstruction implements Instruction {
         if (useA) cpu.setAccA(result);
         else cpu.setAccB(result);
 
-        cpu.setFlag(CPU.CC_N, (result & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, result == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC8, 0, 0, result);
     }
 
     @Override
@@ -3,88 +3,51 @@ package motorola.instructions;
 import motorola.cpu.CPU;
 import motorola.memory.Memory;
 
+/**
+ * EXG r1,r2 (0x1E + postbyte)
+ *
+ * Instances immuables résolues une fois par postbyte, comme TFR.
+ * CC et DP ne sont pas échangeables ici : ils se lisent 0 et ne sont
+ * pas écrits.
+ */
 public class EXGInstruction implements Instruction {
 
+    private static final EXGInstruction[] BY_POSTBYTE = new EXGInstruction[256];
+
+    static {
+        for (int postbyte = 0; postbyte < 256; postbyte++) {
+            BY_POSTBYTE[postbyte] = new EXGInstruction(exchangeable(postbyte >> 4), exchangeable(postbyte & 0xF));
+        }
+    }
+
     private final String mnemonic = "EXG";
-    private final String reg1;
-    private final String reg2;
+    private final int reg1;
+    private final int reg2;
 
-    public EXGInstruction(String reg1, String reg2) {
+    private EXGInstruction(int reg1, int reg2) {
         this.reg1 = reg1;
         this.reg2 = reg2;
     }
 
-    @Override
-    public void execute(CPU cpu, Memory memory) {
-        int val1 = getRegisterValue(cpu, reg1);
-        int val2 = getRegisterValue(cpu, reg2);
-        setRegisterValue(cpu, reg1, val2);
-        setRegisterValue(cpu, reg2, val1);
-        // Flags inchangés (EXG ne modifie pas les flags)
+    /**
+     * Instance partagée correspondant au postbyte
+     */
+    public static EXGInstruction forPostbyte(int postbyte) {
+        return BY_POSTBYTE[postbyte & 0xFF];
     }
 
-    private int getRegisterValue(CPU cpu, String reg) {
-        int result;
-        switch (reg) {
-            case "A":
-                result = cpu.getAccA();
-                break;
-            case "B":
-                result = cpu.getAccB();
-                break;
-            case "D":
-                result = cpu.getAccD();
-                break;
-            case "X":
-                result = cpu.getRegX();
-                break;
-            case "Y":
-                result = cpu.getRegY();
-                break;
-            case "U":
-                result = cpu.getRegU();
-                break;
-            case "S":
-                result = cpu.getRegS();
-                break;
-            case "PC":
-                result = cpu.getRegPC();
-                break;
-            default:
-                result = 0;
-        }
-        return result;
+    private static int exchangeable(int nibble) {
+        int code = TFRInstruction.registerCode(nibble);
+        return code == CPU.REG_CC || code == CPU.REG_DP ? CPU.REG_NONE : code;
     }
 
-    private void setRegisterValue(CPU cpu, String reg, int value) {
-        switch (reg) {
-            case "A":
-                cpu.setAccA(value & 0xFF);
-                break;
-            case "B":
-                cpu.setAccB(value & 0xFF);
-                break;
-            case "D":
-                cpu.setAccD(value & 0xFFFF);
-                break;
-            case "X":
-                cpu.setRegX(value & 0xFFFF);
-                break;
-            case "Y":
-                cpu.setRegY(value & 0xFFFF);
-                break;
-            case "U":
-                cpu.setRegU(value & 0xFFFF);
-                break;
-            case "S":
-                cpu.setRegS(value & 0xFFFF);
-                break;
-            case "PC":
-                cpu.setRegPC(value & 0xFFFF);
-                break;
-            default:
-                break;
-        }
+    @Override
+    public void execute(CPU cpu, Memory memory) {
+        int val1 = cpu.readRegister(reg1);
+        int val2 = cpu.readRegister(reg2);
+        cpu.writeRegister(reg1, val2);
+        cpu.writeRegister(reg2, val1);
+        // Flags inchangés (EXG ne modifie pas les flags)
     }
 
     @Override
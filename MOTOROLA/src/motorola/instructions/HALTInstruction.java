@@ -18,7 +18,7 @@ public class HALTInstruction implements Instruction {
 
     @Override
     public void execute(CPU cpu, Memory memory) {
-        System.out.println(">>> HALT - CPU arrêté");
+        // Pas d'affichage : l'arrêt est rapporté par l'appelant (GUI, HeadlessRunner, BatchRunner)
         cpu.setHalted(true);
     }
 
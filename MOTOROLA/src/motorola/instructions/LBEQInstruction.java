@@ -1,6 +1,7 @@
 package motorola.instructions;
 
 import motorola.cpu.CPU;
+import motorola.cpu.CycleTable;
 import motorola.memory.Memory;
 import motorola.addressing.AddressingMode;
 
@@ -22,6 +23,7 @@ public class LBEQInstruction implements Instruction {
         if (cpu.isFlagSet(CPU.CC_Z)) {
             int newPC = (cpu.getRegPC() + offset) & 0xFFFF;
             cpu.setRegPC(newPC);
+            cpu.addCycles(CycleTable.LONG_BRANCH_TAKEN);
         }
     }
 
@@ -63,9 +63,7 @@ public class LDDInstruction implements Instruction {
         value &= 0xFFFF;
         cpu.setAccD(value);
 
-        cpu.setFlag(CPU.CC_N, (value & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, value == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC16, 0, 0, value);
     }
 
     @Override
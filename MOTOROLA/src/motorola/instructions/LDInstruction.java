@@ -3,6 +3,7 @@ package motorola.instructions;
 import motorola.addressing.AddressingMode;
 import motorola.cpu.CPU;
 import motorola.memory.Memory;
+import motorola.trace.Trace;
 
 public class LDInstruction implements Instruction {
 
@@ -35,7 +36,7 @@ public class LDInstruction implements Instruction {
         switch (mode) {
             case IMM8:
                 value = AddressingMode.immediate8(cpu);
-                System.out.printf("DEBUG LDInstruction IMM8: value=0x%02X, useA=%s\n", value, useA);
+                if (Trace.ADDRESSING_DETAIL) Trace.record(Trace.CAT_ADDRESSING, Trace.EV_OPERAND, cpu.getRegPC(), value, -1);
                 break;
             case DIRECT:
                 value = memory.readByte(AddressingMode.direct(cpu));
@@ -55,9 +56,8 @@ public class LDInstruction implements Instruction {
                 break;
             case INDEXED:
                 int addr = AddressingMode.indexedGeneric(cpu);
-                System.out.printf("DEBUG LDInstruction INDEXED: address=0x%04X\n", addr);
                 value = memory.readByte(addr);
-                System.out.printf("DEBUG LDInstruction INDEXED: value read from memory=0x%02X\n", value);
+                if (Trace.ADDRESSING_DETAIL) Trace.record(Trace.CAT_ADDRESSING, Trace.EV_OPERAND, cpu.getRegPC(), value, addr);
                 break;
             default:
                 throw new IllegalStateException();
@@ -67,15 +67,11 @@ public class LDInstruction implements Instruction {
 
         if (useA) {
             cpu.setAccA(value);
-            System.out.printf("DEBUG: After setAccA(0x%02X), A=0x%02X\n", value, cpu.getAccA());
         } else {
             cpu.setAccB(value);
-            System.out.printf("DEBUG: After setAccB(0x%02X), B=0x%02X\n", value, cpu.getAccB());
         }
 
-        cpu.setFlag(CPU.CC_N, (value & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, value == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC8, 0, 0, value);
     }
 
     @Override
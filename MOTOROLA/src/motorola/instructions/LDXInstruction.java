@@ -65,9 +65,7 @@ public class LDXInstruction implements Instruction {
         cpu.setRegX(value & 0xFFFF);
 
         // Update flags based on loaded value
-        cpu.setFlag(CPU.CC_N, (value & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, value == 0);
-        cpu.setFlag(CPU.CC_V, false); // Always clear overflow
+        cpu.deferFlags(CPU.FLAGS_LOGIC16, 0, 0, value); // Always clear overflow
     }
 
     @Override
@@ -6,40 +6,35 @@ import motorola.memory.Memory;
 public class PSHInstruction implements Instruction {
 
     private final String mnemonic;
-    private final String registerName;
+    private final int register;
 
     public PSHInstruction(String mnemonic, String registerName) {
         this.mnemonic = mnemonic;
-        this.registerName = registerName;
+        this.register = registerCode(registerName);
     }
 
     @Override
     public void execute(CPU cpu, Memory memory) {
-        switch (registerName.toUpperCase()) {
-            case "A":
-                cpu.pushByte(cpu.getAccA());
-                break;
-            case "B":
-                cpu.pushByte(cpu.getAccB());
-                break;
-            case "CC":
-                cpu.pushByte(cpu.getRegCC());
-                break;
-            case "DP":
-                cpu.pushByte(cpu.getRegDP());
-                break;
-            case "X":
-                cpu.pushWord(cpu.getRegX());
-                break;
-            case "Y":
-                cpu.pushWord(cpu.getRegY());
-                break;
-            case "U":
-                cpu.pushWord(cpu.getRegU());
-                break;
-            case "S":
-                cpu.pushWord(cpu.getRegS());
-                break;
+        if (CPU.registerSize(register) == 2) {
+            cpu.pushWord(cpu.readRegister(register));
+        } else {
+            cpu.pushByte(cpu.readRegister(register));
+        }
+    }
+
+    /**
+     * Code CPU du registre à empiler, résolu une fois à la construction
+     */
+    private static int registerCode(String name) {
+        switch (name.toUpperCase()) {
+            case "A":  return CPU.REG_A;
+            case "B":  return CPU.REG_B;
+            case "CC": return CPU.REG_CC;
+            case "DP": return CPU.REG_DP;
+            case "X":  return CPU.REG_X;
+            case "Y":  return CPU.REG_Y;
+            case "U":  return CPU.REG_U;
+            case "S":  return CPU.REG_S;
             default:
                 throw new IllegalArgumentException("Registre inconnu pour PSH");
         }
@@ -6,40 +6,32 @@ import motorola.memory.Memory;
 public class PULInstruction implements Instruction {
 
     private final String mnemonic;
-    private final String registerName;
+    private final int register;
 
     public PULInstruction(String mnemonic, String registerName) {
         this.mnemonic = mnemonic;
-        this.registerName = registerName;
+        this.register = registerCode(registerName);
     }
 
     @Override
     public void execute(CPU cpu, Memory memory) {
-        switch (registerName.toUpperCase()) {
-            case "A":
-                cpu.setAccA(cpu.popByte());
-                break;
-            case "B":
-                cpu.setAccB(cpu.popByte());
-                break;
-            case "CC":
-                cpu.setRegCC(cpu.popByte());
-                break;
-            case "DP":
-                cpu.setRegDP(cpu.popByte());
-                break;
-            case "X":
-                cpu.setRegX(cpu.popWord());
-                break;
-            case "Y":
-                cpu.setRegY(cpu.popWord());
-                break;
-            case "U":
-                cpu.setRegU(cpu.popWord());
-                break;
-            case "S":
-                cpu.setRegS(cpu.popWord());
-                break;
+        int value = CPU.registerSize(register) == 2 ? cpu.popWord() : cpu.popByte();
+        cpu.writeRegister(register, value);
+    }
+
+    /**
+     * Code CPU du registre à dépiler, résolu une fois à la construction
+     */
+    private static int registerCode(String name) {
+        switch (name.toUpperCase()) {
+            case "A":  return CPU.REG_A;
+            case "B":  return CPU.REG_B;
+            case "CC": return CPU.REG_CC;
+            case "DP": return CPU.REG_DP;
+            case "X":  return CPU.REG_X;
+            case "Y":  return CPU.REG_Y;
+            case "U":  return CPU.REG_U;
+            case "S":  return CPU.REG_S;
             default:
                 throw new IllegalArgumentException("Registre inconnu pour PUL");
         }
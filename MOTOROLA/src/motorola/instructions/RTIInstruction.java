@@ -1,6 +1,7 @@
 package motorola.instructions;
 
 import motorola.cpu.CPU;
+import motorola.cpu.CycleTable;
 import motorola.memory.Memory;
 
 public class RTIInstruction implements Instruction {
@@ -9,11 +10,21 @@ public class RTIInstruction implements Instruction {
 
     @Override
     public void execute(CPU cpu, Memory memory) {
-        // RTI restaure CC et PC depuis la pile (little-endian)
+        // RTI restaure CC, l'état complet si E=1 (IRQ, NMI, CWAI), puis PC
         int cc = cpu.popByte();
-        cpu.setRegCC(cc);
+        if ((cc & CPU.CC_E) != 0) {
+            cpu.setAccA(cpu.popByte());
+            cpu.setAccB(cpu.popByte());
+            cpu.setRegDP(cpu.popByte());
+            cpu.setRegX(cpu.popWord());
+            cpu.setRegY(cpu.popWord());
+            cpu.setRegU(cpu.popWord());
+            cpu.addCycles(CycleTable.RTI_ENTIRE);
+        }
         int returnAddr = cpu.popWord();
         cpu.setRegPC(returnAddr);
+        // En dernier : setAccA / setAccB ont touché aux flags
+        cpu.setRegCC(cc);
     }
 
     @Override
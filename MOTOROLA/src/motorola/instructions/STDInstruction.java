@@ -46,9 +46,7 @@ public class STDInstruction implements Instruction {
 
         memory.writeWord(address, d);
 
-        cpu.setFlag(CPU.CC_N, (d & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, d == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC16, 0, 0, d);
     }
 
     @Override
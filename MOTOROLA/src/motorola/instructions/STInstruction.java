@@ -48,9 +48,7 @@ public class STInstruction implements Instruction {
 
         memory.writeByte(addr, value);
 
-        cpu.setFlag(CPU.CC_N, (value & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, value == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC8, 0, 0, value);
     }
 
     @Override
@@ -47,9 +47,7 @@ public class STSInstruction implements Instruction {
 
         memory.writeWord(address, s);
 
-        cpu.setFlag(CPU.CC_N, (s & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, s == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC16, 0, 0, s);
     }
 
     @Override
@@ -47,9 +47,7 @@ public class STUInstruction implements Instruction {
 
         memory.writeWord(address, u);
 
-        cpu.setFlag(CPU.CC_N, (u & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, u == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC16, 0, 0, u);
     }
 
     @Override
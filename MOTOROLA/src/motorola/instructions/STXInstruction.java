@@ -47,9 +47,7 @@ public class STXInstruction implements Instruction {
 
         memory.writeWord(address, x);
 
-        cpu.setFlag(CPU.CC_N, (x & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, x == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC16, 0, 0, x);
     }
 
     @Override
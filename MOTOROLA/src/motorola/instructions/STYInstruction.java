@@ -47,9 +47,7 @@ public class STYInstruction implements Instruction {
 
         memory.writeWord(address, y);
 
-        cpu.setFlag(CPU.CC_N, (y & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, y == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC16, 0, 0, y);
     }
 
     @Override
@@ -58,11 +58,8 @@ public class SUBDInstruction implements Instruction {
 
         cpu.setAccD(finalValue);
 
-        // Update flags for 16-bit operation
-        cpu.setFlag(CPU.CC_N, (finalValue & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_Z, finalValue == 0);
-        cpu.setFlag(CPU.CC_V, ((d ^ operand) & (d ^ result) & 0x8000) != 0);
-        cpu.setFlag(CPU.CC_C, (result & 0x10000) != 0);
+        // Update flags for 16-bit operation (calculés à la demande)
+        cpu.deferFlags(CPU.FLAGS_ARITH16, d, operand, result);
     }
 
     @Override
@@ -58,17 +58,8 @@ public class SUBInstruction implements Instruction {
     }
 
     private void updateFlags(CPU cpu, int a, int b, int result) {
-        cpu.setFlag(CPU.CC_N, (result & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, (result & 0xFF) == 0);
-        cpu.setFlag(
-            CPU.CC_V,
-            ((a ^ b) & (a ^ result) & 0x80) != 0
-        );
-        cpu.setFlag(CPU.CC_C, result < 0);
-        cpu.setFlag(
-            CPU.CC_H,
-            ((a & 0x0F) - (b & 0x0F)) < 0
-        );
+        // N, Z, V, C, H calculés à la demande par le CPU
+        cpu.deferFlags(CPU.FLAGS_SUB8, a, b, result);
     }
 
     @Override
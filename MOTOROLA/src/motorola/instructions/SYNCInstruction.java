@@ -8,7 +8,9 @@ public class SYNCInstruction implements Instruction {
 
     @Override
     public void execute(CPU cpu, Memory memory) {
-        cpu.setWaiting(true); // Attend interruption
+        // Attend une ligne d'interruption ; si elle est masquée, l'exécution
+        // reprend simplement à l'instruction suivante
+        cpu.setWaiting(true);
     }
 
     @Override
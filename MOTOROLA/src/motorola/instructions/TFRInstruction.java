@@ -3,98 +3,59 @@ package motorola.instructions;
 import motorola.cpu.CPU;
 import motorola.memory.Memory;
 
+/**
+ * TFR r1,r2 (0x1F + postbyte)
+ *
+ * Les 256 postbytes sont résolus une fois pour toutes en instances immuables
+ * (voir {@link #forPostbyte}), avec les codes de registre du CPU : le décodage
+ * ne crée aucun objet et l'exécution passe directement par le banc de registres.
+ */
 public class TFRInstruction implements Instruction {
 
+    // Code CPU de chaque quartet du postbyte. L'assembleur numérote
+    // 0=A, 1=B, 2=CC, 3=DP, 4=D, 5=X, 6=Y, 7=U, 8=S ; le reste est sans registre
+    private static final int[] POSTBYTE_REGISTERS = {
+        CPU.REG_A, CPU.REG_B, CPU.REG_CC, CPU.REG_DP, CPU.REG_D,
+        CPU.REG_X, CPU.REG_Y, CPU.REG_U, CPU.REG_S,
+        CPU.REG_NONE, CPU.REG_NONE, CPU.REG_NONE, CPU.REG_NONE,
+        CPU.REG_NONE, CPU.REG_NONE, CPU.REG_NONE
+    };
+
+    private static final TFRInstruction[] BY_POSTBYTE = new TFRInstruction[256];
+
+    static {
+        for (int postbyte = 0; postbyte < 256; postbyte++) {
+            BY_POSTBYTE[postbyte] = new TFRInstruction(registerCode(postbyte >> 4), registerCode(postbyte & 0xF));
+        }
+    }
+
     private final String mnemonic = "TFR";
-    private final String src;
-    private final String dest;
+    private final int src;
+    private final int dest;
 
-    public TFRInstruction(String src, String dest) {
+    private TFRInstruction(int src, int dest) {
         this.src = src;
         this.dest = dest;
     }
 
-    @Override
-    public void execute(CPU cpu, Memory memory) {
-        int value = getRegisterValue(cpu, src);
-        setRegisterValue(cpu, dest, value);
-        // TFR ne modifie pas les flags selon la spécification 6809
+    /**
+     * Instance partagée correspondant au postbyte (source en poids fort)
+     */
+    public static TFRInstruction forPostbyte(int postbyte) {
+        return BY_POSTBYTE[postbyte & 0xFF];
     }
 
-    private int getRegisterValue(CPU cpu, String reg) {
-        int result;
-        switch (reg) {
-            case "A":
-                result = cpu.getAccA();
-                break;
-            case "B":
-                result = cpu.getAccB();
-                break;
-            case "D":
-                result = cpu.getAccD();
-                break;
-            case "X":
-                result = cpu.getRegX();
-                break;
-            case "Y":
-                result = cpu.getRegY();
-                break;
-            case "U":
-                result = cpu.getRegU();
-                break;
-            case "S":
-                result = cpu.getRegS();
-                break;
-            case "PC":
-                result = cpu.getRegPC();
-                break;
-            case "DP":
-                result = cpu.getRegDP();
-                break;
-            case "CC":
-                result = cpu.getRegCC();
-                break;
-            default:
-                result = 0;
-        }
-        return result;
+    /**
+     * Code CPU (CPU.REG_*) d'un quartet du postbyte
+     */
+    static int registerCode(int nibble) {
+        return POSTBYTE_REGISTERS[nibble & 0xF];
     }
 
-    private void setRegisterValue(CPU cpu, String reg, int value) {
-        switch (reg) {
-            case "A":
-                cpu.setAccA(value & 0xFF);
-                break;
-            case "B":
-                cpu.setAccB(value & 0xFF);
-                break;
-            case "D":
-                cpu.setAccD(value & 0xFFFF);
-                break;
-            case "X":
-                cpu.setRegX(value & 0xFFFF);
-                break;
-            case "Y":
-                cpu.setRegY(value & 0xFFFF);
-                break;
-            case "U":
-                cpu.setRegU(value & 0xFFFF);
-                break;
-            case "S":
-                cpu.setRegS(value & 0xFFFF);
-                break;
-            case "PC":
-                cpu.setRegPC(value & 0xFFFF);
-                break;
-            case "DP":
-                cpu.setRegDP(value & 0xFF);
-                break;
-            case "CC":
-                cpu.setRegCC(value & 0xFF);
-                break;
-            default:
-                break;
-        }
+    @Override
+    public void execute(CPU cpu, Memory memory) {
+        cpu.writeRegister(dest, cpu.readRegister(src));
+        // TFR ne modifie pas les flags selon la spécification 6809
     }
 
     @Override
@@ -36,9 +36,7 @@ public class TSTInstruction implements Instruction {
                 throw new IllegalStateException("Mode invalide");
         }
 
-        cpu.setFlag(CPU.CC_N, (operand & 0x80) != 0);
-        cpu.setFlag(CPU.CC_Z, operand == 0);
-        cpu.setFlag(CPU.CC_V, false);
+        cpu.deferFlags(CPU.FLAGS_LOGIC8, 0, 0, operand);
     }
 
     @Override
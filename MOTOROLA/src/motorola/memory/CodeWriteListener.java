@@ -0,0 +1,19 @@
+package motorola.memory;
+
+/**
+ * Observateur notifié quand une écriture touche une adresse marquée comme code
+ * (voir {@link Memory#markCode(int)}). Permet d'invalider le code prédécodé.
+ */
+public interface CodeWriteListener {
+
+    /**
+     * Appelé quand un octet marqué comme code est écrit
+     * @param address L'adresse écrite
+     */
+    void codeWritten(int address);
+
+    /**
+     * Appelé quand toute la mémoire est réinitialisée
+     */
+    void memoryCleared();
+}
@@ -0,0 +1,79 @@
+package motorola.memory;
+
+import java.util.Arrays;
+
+/**
+ * Lignes de 16 octets écrites depuis le dernier relevé, vues par un
+ * consommateur (affichage, images mémoire...). Obtenu par
+ * {@link Memory#trackDirtyLines(boolean)}.
+ *
+ * Chaque consommateur a son propre jeu : relever ses lignes ne les retire
+ * pas aux autres. {@link #fetchAndClear()} peut être appelé depuis un autre
+ * thread que celui du CPU ; le résultat reste lisible jusqu'au relevé suivant.
+ */
+public final class DirtyLineSet {
+
+    static final int WORDS = Memory.LINE_COUNT >> 6;
+
+    private final Memory memory;
+
+    // Lignes accumulées depuis le dernier relevé (protégé par le verrou de Memory)
+    final long[] pending = new long[WORDS];
+
+    // Résultat du dernier relevé
+    private final long[] lines = new long[WORDS];
+
+    DirtyLineSet(Memory memory, boolean allDirty) {
+        this.memory = memory;
+        if (allDirty) Arrays.fill(pending, -1L);
+    }
+
+    /**
+     * Relève les lignes écrites depuis le relevé précédent et les efface
+     * @return this, pour enchaîner les lectures
+     */
+    public DirtyLineSet fetchAndClear() {
+        memory.collectDirtyLines(this);
+        return this;
+    }
+
+    // Appelé sous le verrou de Memory
+    void take() {
+        System.arraycopy(pending, 0, lines, 0, WORDS);
+        Arrays.fill(pending, 0L);
+    }
+
+    public boolean isDirty(int line) {
+        return (lines[line >>> 6] & (1L << line)) != 0;
+    }
+
+    /**
+     * Vrai si une des 16 lignes de la page (256 octets) est marquée
+     */
+    public boolean isPageDirty(int page) {
+        return (lines[page >>> 2] & (0xFFFFL << ((page & 3) << 4))) != 0;
+    }
+
+    /**
+     * Première ligne marquée à partir de from, -1 s'il n'y en a plus
+     */
+    public int nextDirtyLine(int from) {
+        if (from >= Memory.LINE_COUNT) return -1;
+        int word = from >>> 6;
+        long bits = lines[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == WORDS) return -1;
+            bits = lines[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * Nombre de lignes marquées au dernier relevé
+     */
+    public int count() {
+        int count = 0;
+        for (long word : lines) count += Long.bitCount(word);
+        return count;
+    }
+}
@@ -1,36 +1,156 @@
 package motorola.memory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 /**
  * Représente la mémoire du processeur Motorola 6809.
  * Capacité: 64 Ko (0x0000 - 0xFFFF)
+ *
+ * C'est aussi le bus du CPU : l'espace d'adressage est découpé en 256 pages
+ * de 256 octets. Une page sans périphérique est de la RAM lue directement
+ * dans le tableau ; une page projetée par {@link #map} est déléguée à son
+ * {@link MemoryDevice}. Les adresses sont ramenées sur 16 bits, comme sur
+ * le 6809 (un mot lu en $FFFF prend son octet bas en $0000).
+ *
+ * Chaque écriture marque sa ligne de 16 octets dans un bitmap partagé ; les
+ * consommateurs ({@link DirtyLineSet}) relèvent ce qui a changé au lieu de
+ * reparcourir les 64 Ko.
  */
 public class Memory {
 
     public static final int MEMORY_SIZE = 0x10000; //65536 bytes en hexa
+
+    public static final int PAGE_SHIFT = 8;
+    public static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    public static final int PAGE_COUNT = MEMORY_SIZE >> PAGE_SHIFT;
+
+    public static final int LINE_SHIFT = 4;
+    public static final int LINE_SIZE = 1 << LINE_SHIFT;
+    public static final int LINE_COUNT = MEMORY_SIZE >> LINE_SHIFT;
+
     private final byte[] memory;
 
+    // Périphérique de chaque page, null pour la RAM
+    private final MemoryDevice[] devices;
+
+    // Adresses couvertes par du code prédécodé : une écriture dessus notifie codeListener
+    private final boolean[] codeMarks;
+    private CodeWriteListener codeListener;
+
+    // Points d'observation : un bit par adresse, testés seulement si watching
+    private final long[] readWatches;
+    private final long[] writeWatches;
+    private boolean watching;
+    private WatchListener watchListener;
+
+    // Lignes écrites depuis le dernier relevé, un bit par ligne de 16 octets.
+    // Marqué par le thread du CPU, vidé par les consommateurs sous dirtyTrackers
+    private final AtomicLongArray dirtyLines;
+    private final List<DirtyLineSet> dirtyTrackers;
+
+    // Lignes écrites depuis la dernière image : les pages intactes sont partagées
+    private final DirtyLineSet imageLines;
+    private byte[][] lastImagePages;
+
+    // Anciennes valeurs des octets écrits, pour l'exécution arrière (null = inactif)
+    private WriteJournal journal;
+
+    // Lectures et écritures CPU passées par un périphérique : un rejeu ne
+    // peut pas les reproduire (voir Debugger.stepBack)
+    private long deviceAccesses;
+
     public Memory() {
         memory = new byte[MEMORY_SIZE];
+        codeMarks = new boolean[MEMORY_SIZE];
+        devices = new MemoryDevice[PAGE_COUNT];
+        readWatches = new long[MEMORY_SIZE >> 6];
+        writeWatches = new long[MEMORY_SIZE >> 6];
+        dirtyLines = new AtomicLongArray(DirtyLineSet.WORDS);
+        dirtyTrackers = new ArrayList<>();
+        imageLines = trackDirtyLines(true);
         reset();
     }
 
-    // Réinitialiser la mémoire
+    // Réinitialiser la mémoire (les projections sont conservées)
     public void reset() {
-        for (int i = 0; i < MEMORY_SIZE; i++) {
-            memory[i] = 0x00;
+        Arrays.fill(memory, (byte) 0);
+        Arrays.fill(codeMarks, false);
+        for (int word = 0; word < DirtyLineSet.WORDS; word++) {
+            dirtyLines.set(word, -1L);
+        }
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            // Un périphérique sur plusieurs pages n'est réinitialisé qu'une fois
+            MemoryDevice device = devices[page];
+            if (device != null && (page == 0 || devices[page - 1] != device)) {
+                device.reset();
+            }
+        }
+        if (codeListener != null) {
+            codeListener.memoryCleared();
         }
     }
 
     // Lecture d'un octet (8 bits)
     public int readByte(int address) {
-        checkAddress(address);
-        return memory[address] & 0xFF;
+        address &= 0xFFFF;
+        MemoryDevice device = devices[address >>> PAGE_SHIFT];
+        int value;
+        if (device == null) {
+            value = memory[address] & 0xFF;
+        } else {
+            deviceAccesses++;
+            value = device.read(address) & 0xFF;
+        }
+        if (watching && (readWatches[address >>> 6] & (1L << address)) != 0) {
+            watchListener.watchpointHit(address, value, false);
+        }
+        return value;
+    }
+
+    // Lecture sans effet de bord sur les périphériques (affichage, dumps)
+    public int peekByte(int address) {
+        address &= 0xFFFF;
+        MemoryDevice device = devices[address >>> PAGE_SHIFT];
+        if (device == null) {
+            return memory[address] & 0xFF;
+        }
+        return device.peek(address) & 0xFF;
     }
 
     // Écriture d'un octet (8 bits)
     public void writeByte(int address, int value) {
-        checkAddress(address);
-        memory[address] = (byte) (value & 0xFF);
+        address &= 0xFFFF;
+        MemoryDevice device = devices[address >>> PAGE_SHIFT];
+        if (device == null) {
+            if (journal != null) journal.byteOverwritten(address, memory[address] & 0xFF);
+            memory[address] = (byte) value;
+        } else {
+            deviceAccesses++;
+            device.write(address, value & 0xFF);
+        }
+        markLine(address);
+        if (codeMarks[address]) {
+            codeMarks[address] = false;
+            codeListener.codeWritten(address);
+        }
+        if (watching && (writeWatches[address >>> 6] & (1L << address)) != 0) {
+            watchListener.watchpointHit(address, value & 0xFF, true);
+        }
+    }
+
+    // Écriture en RAM hors CPU (annulation) : ni journal ni watchpoint
+    public void pokeByte(int address, int value) {
+        address &= 0xFFFF;
+        if (devices[address >>> PAGE_SHIFT] != null) return;
+        memory[address] = (byte) value;
+        markLine(address);
+        if (codeMarks[address]) {
+            codeMarks[address] = false;
+            codeListener.codeWritten(address);
+        }
     }
 
     // Lecture d'un mot (16 bits)
@@ -53,11 +173,252 @@ public class Memory {
         }
     }
 
-    // Vérification d'adresse
-    private void checkAddress(int address) {
-        if (address < 0 || address >= MEMORY_SIZE) {
+    // Marquer une adresse comme contenant du code prédécodé
+    public void markCode(int address) {
+        if (codeListener != null) {
+            codeMarks[address & 0xFFFF] = true;
+        }
+    }
+
+    public void setCodeWriteListener(CodeWriteListener listener) {
+        this.codeListener = listener;
+    }
+
+    public void setWriteJournal(WriteJournal journal) {
+        this.journal = journal;
+    }
+
+    // =======================
+    // ===== IMAGES ==========
+    // =======================
+
+    /**
+     * Image de la RAM ; seules les pages écrites depuis l'image précédente
+     * (ou depuis le dernier restore) sont recopiées
+     */
+    public MemoryImage snapshot() {
+        imageLines.fetchAndClear();
+        byte[][] pages = new byte[PAGE_COUNT][];
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            if (devices[page] != null) continue;
+            if (!imageLines.isPageDirty(page) && lastImagePages != null && lastImagePages[page] != null) {
+                pages[page] = lastImagePages[page];
+            } else {
+                pages[page] = Arrays.copyOfRange(memory, page << PAGE_SHIFT, (page + 1) << PAGE_SHIFT);
+            }
+        }
+        lastImagePages = pages;
+        return new MemoryImage(pages);
+    }
+
+    /**
+     * Remet la RAM dans l'état de l'image ; les pages de périphérique sont
+     * laissées telles quelles
+     */
+    public void restore(MemoryImage image) {
+        byte[][] pages = image.pages;
+        imageLines.fetchAndClear();
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            if (devices[page] != null || pages[page] == null) continue;
+            // Page intacte depuis une image qui partage ce tableau : rien à copier
+            if (!imageLines.isPageDirty(page) && lastImagePages != null && lastImagePages[page] == pages[page]) continue;
+            System.arraycopy(pages[page], 0, memory, page << PAGE_SHIFT, PAGE_SIZE);
+            invalidateCode(page, 1);
+            // Les autres consommateurs voient la page changer
+            for (int address = page << PAGE_SHIFT; address < (page + 1) << PAGE_SHIFT; address += LINE_SIZE) {
+                markLine(address);
+            }
+        }
+        // La RAM correspond maintenant à l'image : rien n'est à recopier pour elle
+        imageLines.fetchAndClear();
+        lastImagePages = pages;
+    }
+
+    // =======================
+    // ===== LIGNES MODIFIÉES =
+    // =======================
+
+    /**
+     * Nouveau consommateur des lignes modifiées
+     * @param allDirty Vrai pour que le premier relevé rende toute la mémoire
+     *                 (affichage à initialiser), faux pour ne compter que les
+     *                 écritures à venir
+     */
+    public DirtyLineSet trackDirtyLines(boolean allDirty) {
+        DirtyLineSet set = new DirtyLineSet(this, allDirty);
+        synchronized (dirtyTrackers) {
+            // Les écritures passées reviennent aux consommateurs déjà inscrits
+            drainDirtyLines();
+            dirtyTrackers.add(set);
+        }
+        return set;
+    }
+
+    public void untrackDirtyLines(DirtyLineSet set) {
+        synchronized (dirtyTrackers) {
+            dirtyTrackers.remove(set);
+        }
+    }
+
+    // Relevé d'un consommateur : le bitmap partagé est vidé dans tous les jeux
+    void collectDirtyLines(DirtyLineSet set) {
+        synchronized (dirtyTrackers) {
+            drainDirtyLines();
+            set.take();
+        }
+    }
+
+    private void drainDirtyLines() {
+        for (int word = 0; word < DirtyLineSet.WORDS; word++) {
+            long bits = dirtyLines.get(word) == 0 ? 0 : dirtyLines.getAndSet(word, 0L);
+            if (bits == 0) continue;
+            for (DirtyLineSet tracker : dirtyTrackers) {
+                tracker.pending[word] |= bits;
+            }
+        }
+    }
+
+    // Une ligne déjà marquée ne coûte qu'une lecture
+    private void markLine(int address) {
+        int line = address >>> LINE_SHIFT;
+        int word = line >>> 6;
+        long bit = 1L << line;
+        long bits = dirtyLines.get(word);
+        while ((bits & bit) == 0 && !dirtyLines.compareAndSet(word, bits, bits | bit)) {
+            bits = dirtyLines.get(word);
+        }
+    }
+
+    // =======================
+    // ===== OBSERVATION =====
+    // =======================
+
+    /**
+     * Active ou désactive la surveillance en lecture de start à end inclus
+     */
+    public void watchRead(int start, int end, boolean enabled) {
+        setWatches(readWatches, start, end, enabled);
+    }
+
+    /**
+     * Active ou désactive la surveillance en écriture de start à end inclus
+     */
+    public void watchWrite(int start, int end, boolean enabled) {
+        setWatches(writeWatches, start, end, enabled);
+    }
+
+    public void clearWatches() {
+        Arrays.fill(readWatches, 0L);
+        Arrays.fill(writeWatches, 0L);
+        watching = false;
+    }
+
+    public boolean isReadWatched(int address) {
+        address &= 0xFFFF;
+        return (readWatches[address >>> 6] & (1L << address)) != 0;
+    }
+
+    public boolean isWriteWatched(int address) {
+        address &= 0xFFFF;
+        return (writeWatches[address >>> 6] & (1L << address)) != 0;
+    }
+
+    /**
+     * Vrai si au moins une adresse est surveillée
+     */
+    public boolean isWatching() { return watching; }
+
+    /**
+     * Nombre total de lectures et écritures CPU adressées à un périphérique
+     */
+    public long getDeviceAccessCount() { return deviceAccesses; }
+
+    public void setWatchListener(WatchListener listener) {
+        this.watchListener = listener;
+        updateWatching();
+    }
+
+    private void setWatches(long[] bits, int start, int end, boolean enabled) {
+        start &= 0xFFFF;
+        end &= 0xFFFF;
+        if (end < start) {
+            throw new IllegalArgumentException(
+                String.format("Plage invalide : $%04X-$%04X", start, end)
+            );
+        }
+        for (int address = start; address <= end; address++) {
+            if (enabled) bits[address >>> 6] |= 1L << address;
+            else bits[address >>> 6] &= ~(1L << address);
+        }
+        updateWatching();
+    }
+
+    // Le drapeau global évite tout test de bit tant que rien n'est surveillé
+    private void updateWatching() {
+        boolean any = false;
+        for (int i = 0; i < readWatches.length && !any; i++) {
+            any = (readWatches[i] | writeWatches[i]) != 0;
+        }
+        watching = any && watchListener != null;
+    }
+
+    // =======================
+    // ===== PÉRIPHÉRIQUES ===
+    // =======================
+
+    /**
+     * Projette un périphérique sur des pages de 256 octets
+     * @param firstPage Première page (adresse >> 8)
+     * @param pageCount Nombre de pages
+     */
+    public void map(int firstPage, int pageCount, MemoryDevice device) {
+        if (device == null) {
+            throw new IllegalArgumentException("Périphérique manquant");
+        }
+        checkPages(firstPage, pageCount);
+        for (int page = firstPage; page < firstPage + pageCount; page++) {
+            if (devices[page] != null) {
+                throw new IllegalStateException(
+                    String.format("Page $%02X déjà projetée", page)
+                );
+            }
+        }
+        Arrays.fill(devices, firstPage, firstPage + pageCount, device);
+        invalidateCode(firstPage, pageCount);
+    }
+
+    /**
+     * Rend des pages à la RAM
+     */
+    public void unmap(int firstPage, int pageCount) {
+        checkPages(firstPage, pageCount);
+        Arrays.fill(devices, firstPage, firstPage + pageCount, null);
+        invalidateCode(firstPage, pageCount);
+    }
+
+    /**
+     * Périphérique de la page contenant address, null si c'est de la RAM
+     */
+    public MemoryDevice getDevice(int address) {
+        return devices[(address & 0xFFFF) >>> PAGE_SHIFT];
+    }
+
+    // Le contenu vu par le CPU change : le code prédécodé de ces pages n'est plus valable
+    private void invalidateCode(int firstPage, int pageCount) {
+        int end = (firstPage + pageCount) << PAGE_SHIFT;
+        for (int address = firstPage << PAGE_SHIFT; address < end; address++) {
+            if (codeMarks[address]) {
+                codeMarks[address] = false;
+                codeListener.codeWritten(address);
+            }
+        }
+    }
+
+    // Vérification d'une plage de pages
+    private void checkPages(int firstPage, int pageCount) {
+        if (firstPage < 0 || pageCount < 1 || firstPage + pageCount > PAGE_COUNT) {
             throw new IllegalArgumentException(
-                String.format("Adresse mémoire invalide : 0x%04X", address)
+                String.format("Pages invalides : $%02X (+%d)", firstPage, pageCount)
             );
         }
     }
@@ -0,0 +1,39 @@
+package motorola.memory;
+
+/**
+ * Périphérique projeté sur une ou plusieurs pages de 256 octets du bus
+ * (voir {@link Memory#map(int, int, MemoryDevice)}).
+ *
+ * Les adresses reçues sont les adresses CPU complètes (0x0000 - 0xFFFF) ;
+ * au périphérique de retrouver son registre à partir de l'adresse.
+ */
+public interface MemoryDevice {
+
+    /**
+     * Lecture d'un octet par le CPU (peut avoir des effets de bord)
+     * @return Valeur 8 bits
+     */
+    int read(int address);
+
+    /**
+     * Écriture d'un octet par le CPU
+     * @param value Valeur 8 bits
+     */
+    void write(int address, int value);
+
+    /**
+     * Lecture sans effet de bord : vues du débogueur, mais aussi cache de
+     * prédécodage, table des cycles et trace, à chaque instruction lue dans
+     * la page. Par défaut $FF (bus non piloté) : un périphérique qui peut
+     * rendre son état sans effet de bord redéfinit cette méthode.
+     */
+    default int peek(int address) {
+        return 0xFF;
+    }
+
+    /**
+     * Appelé par {@link Memory#reset()}
+     */
+    default void reset() {
+    }
+}
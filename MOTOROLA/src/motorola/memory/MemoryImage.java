@@ -0,0 +1,38 @@
+package motorola.memory;
+
+/**
+ * Image figée de la RAM, produite par {@link Memory#snapshot()}.
+ *
+ * L'image est rangée par pages de 256 octets. Une page qui n'a pas été écrite
+ * depuis l'image précédente n'est pas recopiée : les deux images partagent le
+ * même tableau, qui n'est plus jamais modifié. Les pages projetées sur un
+ * périphérique ne font pas partie de l'image (null).
+ */
+public final class MemoryImage {
+
+    final byte[][] pages;
+
+    MemoryImage(byte[][] pages) {
+        this.pages = pages;
+    }
+
+    /**
+     * Octet de l'image à l'adresse donnée (0 pour une page de périphérique)
+     */
+    public int readByte(int address) {
+        address &= 0xFFFF;
+        byte[] page = pages[address >>> Memory.PAGE_SHIFT];
+        return page == null ? 0 : page[address & (Memory.PAGE_SIZE - 1)] & 0xFF;
+    }
+
+    /**
+     * Nombre de pages partagées avec une autre image (même tableau)
+     */
+    public int sharedPagesWith(MemoryImage other) {
+        int shared = 0;
+        for (int page = 0; page < pages.length; page++) {
+            if (pages[page] != null && pages[page] == other.pages[page]) shared++;
+        }
+        return shared;
+    }
+}
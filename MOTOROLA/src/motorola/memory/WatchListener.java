@@ -0,0 +1,16 @@
+package motorola.memory;
+
+/**
+ * Observateur notifié quand le CPU accède à une adresse surveillée
+ * (voir {@link Memory#watchRead} et {@link Memory#watchWrite})
+ */
+public interface WatchListener {
+
+    /**
+     * Appelé après la lecture ou l'écriture d'une adresse surveillée
+     * @param address L'adresse accédée
+     * @param value La valeur lue ou écrite
+     * @param write true pour une écriture
+     */
+    void watchpointHit(int address, int value, boolean write);
+}
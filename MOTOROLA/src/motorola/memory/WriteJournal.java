@@ -0,0 +1,15 @@
+package motorola.memory;
+
+/**
+ * Reçoit l'ancienne valeur de chaque octet de RAM écrit par le CPU
+ * (voir {@link Memory#setWriteJournal}), pour pouvoir annuler les écritures
+ */
+public interface WriteJournal {
+
+    /**
+     * Appelé juste avant l'écriture
+     * @param address L'adresse écrite
+     * @param oldValue La valeur qu'elle contenait
+     */
+    void byteOverwritten(int address, int oldValue);
+}
@@ -0,0 +1,221 @@
+package motorola.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Trace structurée du simulateur, par catégorie (fetch, decode, addressing,
+ * stack, flags) et par niveau.
+ *
+ * Les niveaux sont lus une seule fois au chargement de la classe, depuis la
+ * propriété système motorola.trace :
+ *
+ *   -Dmotorola.trace=fetch,addressing:2     (niveau 1 par défaut)
+ *   -Dmotorola.trace=all
+ *   -Dmotorola.trace.file=trace.bin         (fichier de sortie, défaut trace.bin)
+ *
+ * Les drapeaux FETCH, DECODE... sont des static final : un site d'appel
+ * "if (Trace.FETCH) ..." est éliminé par le JIT quand la catégorie est coupée.
+ *
+ * Chaque événement est un enregistrement binaire de RECORD_SIZE octets
+ * (catégorie, événement, PC, deux valeurs 32 bits), relu par {@link TraceDump}.
+ */
+public final class Trace {
+
+    // =======================
+    // ===== CATÉGORIES ======
+    // =======================
+
+    public static final int CAT_FETCH      = 0;
+    public static final int CAT_DECODE     = 1;
+    public static final int CAT_ADDRESSING = 2;
+    public static final int CAT_STACK      = 3;
+    public static final int CAT_FLAGS      = 4;
+
+    static final String[] CATEGORY_NAMES = { "fetch", "decode", "addressing", "stack", "flags" };
+
+    // =======================
+    // ===== NIVEAUX =========
+    // =======================
+
+    public static final int OFF    = 0;
+    public static final int BASIC  = 1;
+    public static final int DETAIL = 2;
+
+    private static final int[] LEVELS = parseLevels(System.getProperty("motorola.trace", ""));
+
+    public static final int FETCH_LEVEL      = LEVELS[CAT_FETCH];
+    public static final int DECODE_LEVEL     = LEVELS[CAT_DECODE];
+    public static final int ADDRESSING_LEVEL = LEVELS[CAT_ADDRESSING];
+    public static final int STACK_LEVEL      = LEVELS[CAT_STACK];
+    public static final int FLAGS_LEVEL      = LEVELS[CAT_FLAGS];
+
+    public static final boolean FETCH      = FETCH_LEVEL > OFF;
+    public static final boolean DECODE     = DECODE_LEVEL > OFF;
+    public static final boolean ADDRESSING = ADDRESSING_LEVEL > OFF;
+    public static final boolean STACK      = STACK_LEVEL > OFF;
+    public static final boolean FLAGS      = FLAGS_LEVEL > OFF;
+
+    // Valeurs d'opérandes en plus des adresses effectives
+    public static final boolean ADDRESSING_DETAIL = ADDRESSING_LEVEL >= DETAIL;
+
+    // =======================
+    // ===== ÉVÉNEMENTS ======
+    // =======================
+
+    public static final int EV_OPCODE   = 0;  // fetch      : a=opcode
+    public static final int EV_DECODED  = 1;  // decode     : a=octets d'en-tête, b=longueur d'en-tête (0 = inconnu)
+    public static final int EV_INDEXED  = 2;  // addressing : a=postbyte, b=adresse effective
+    public static final int EV_INDIRECT = 3;  // addressing : a=adresse du pointeur, b=adresse finale
+    public static final int EV_OPERAND  = 4;  // addressing : a=valeur, b=adresse (-1 si immédiat)
+    public static final int EV_PUSH_S   = 5;  // stack      : a=valeur, b=nouveau S
+    public static final int EV_POP_S    = 6;  // stack      : a=valeur, b=nouveau S
+    public static final int EV_PUSH_U   = 7;  // stack      : a=valeur, b=nouveau U
+    public static final int EV_POP_U    = 8;  // stack      : a=valeur, b=nouveau U
+    public static final int EV_FLAGS    = 9;  // flags      : a=type d'opération, b=CC calculé
+
+    static final String[] EVENT_NAMES = {
+        "OPCODE", "DECODED", "INDEXED", "INDIRECT", "OPERAND",
+        "PUSH_S", "POP_S", "PUSH_U", "POP_U", "FLAGS"
+    };
+
+    // =======================
+    // ===== ENREGISTREMENT ==
+    // =======================
+
+    // catégorie (1) + événement (1) + PC (2) + a (4) + b (4)
+    public static final int RECORD_SIZE = 12;
+
+    private static final int BUFFER_RECORDS = 8192;
+
+    private static ByteBuffer buffer;
+    private static FileChannel channel;
+    private static long records;
+
+    // Fichier impossible à ouvrir ou à écrire : la trace est coupée, jamais
+    // une exception dans la boucle d'exécution
+    private static boolean disabled;
+
+    private Trace() {
+    }
+
+    /**
+     * Ajoute un enregistrement ; à n'appeler que derrière le drapeau de la catégorie
+     */
+    public static synchronized void record(int category, int event, int pc, int a, int b) {
+        if (disabled) return;
+        if (buffer == null && !open()) return;
+        if (buffer.remaining() < RECORD_SIZE) {
+            flush();
+            if (disabled) return;
+        }
+        buffer.put((byte) category);
+        buffer.put((byte) event);
+        buffer.putShort((short) pc);
+        buffer.putInt(a);
+        buffer.putInt(b);
+        records++;
+    }
+
+    /**
+     * Écrit les enregistrements en attente dans le fichier de trace
+     */
+    public static synchronized void flush() {
+        if (buffer == null) return;
+        if (channel == null) {
+            buffer.clear();
+            return;
+        }
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            System.err.println("Trace : écriture impossible, trace désactivée : " + e.getMessage());
+            channel = null;
+            disabled = true;
+        }
+        buffer.clear();
+    }
+
+    public static synchronized long getRecordCount() { return records; }
+
+    /**
+     * Ouvre le fichier de trace ; en cas d'échec la trace est désactivée
+     * @return false si le fichier n'a pas pu être ouvert
+     */
+    private static boolean open() {
+        String file = System.getProperty("motorola.trace.file", "trace.bin");
+        try {
+            channel = FileChannel.open(Paths.get(file),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Trace : ouverture impossible de " + file + ", trace désactivée : " + e.getMessage());
+            disabled = true;
+            return false;
+        }
+        buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_SIZE);
+        Runtime.getRuntime().addShutdownHook(new Thread(Trace::close, "trace-flush"));
+        return true;
+    }
+
+    private static synchronized void close() {
+        flush();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Rien à faire à l'arrêt de la JVM
+            }
+            channel = null;
+        }
+    }
+
+    // =======================
+    // ===== CONFIGURATION ===
+    // =======================
+
+    private static int[] parseLevels(String spec) {
+        int[] levels = new int[CATEGORY_NAMES.length];
+        for (String item : spec.split(",")) {
+            String entry = item.trim().toLowerCase();
+            if (entry.isEmpty()) continue;
+
+            int level = BASIC;
+            int separator = entry.indexOf(':');
+            if (separator >= 0) {
+                try {
+                    level = Integer.parseInt(entry.substring(separator + 1).trim());
+                } catch (NumberFormatException e) {
+                    System.err.println("Trace : niveau invalide ignoré : " + item);
+                    continue;
+                }
+                entry = entry.substring(0, separator).trim();
+            }
+
+            if (entry.equals("all")) {
+                Arrays.fill(levels, level);
+                continue;
+            }
+            int category = categoryOf(entry);
+            if (category < 0) {
+                System.err.println("Trace : catégorie inconnue ignorée : " + item);
+                continue;
+            }
+            levels[category] = level;
+        }
+        return levels;
+    }
+
+    static int categoryOf(String name) {
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            if (CATEGORY_NAMES[i].equals(name)) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,89 @@
+package motorola.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Affiche un fichier de trace binaire produit par {@link Trace}
+ *
+ * Usage : java -cp bin motorola.trace.TraceDump [trace.bin] [catégorie...]
+ */
+public class TraceDump {
+
+    public static void main(String[] args) {
+        String file = args.length > 0 ? args[0] : "trace.bin";
+
+        // Filtre optionnel sur les catégories
+        boolean[] shown = new boolean[Trace.CATEGORY_NAMES.length];
+        boolean filter = args.length > 1;
+        for (int i = 1; i < args.length; i++) {
+            int category = Trace.categoryOf(args[i].toLowerCase());
+            if (category >= 0) shown[category] = true;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            long index = 0;
+            while (true) {
+                int category;
+                try {
+                    category = in.readUnsignedByte();
+                } catch (EOFException e) {
+                    break;
+                }
+                int event = in.readUnsignedByte();
+                int pc = in.readUnsignedShort();
+                int a = in.readInt();
+                int b = in.readInt();
+
+                if (!filter || (category < shown.length && shown[category])) {
+                    System.out.println(format(index, category, event, pc, a, b));
+                }
+                index++;
+            }
+        } catch (IOException e) {
+            System.err.println("Lecture impossible de " + file + " : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static String format(long index, int category, int event, int pc, int a, int b) {
+        String categoryName = category < Trace.CATEGORY_NAMES.length ? Trace.CATEGORY_NAMES[category] : "?" + category;
+        String eventName = event < Trace.EVENT_NAMES.length ? Trace.EVENT_NAMES[event] : "?" + event;
+        String detail;
+
+        switch (event) {
+            case Trace.EV_OPCODE:
+                detail = String.format("opcode=%02X", a);
+                break;
+            case Trace.EV_DECODED:
+                detail = b == 0 ? "inconnu" : String.format("octets=%0" + (2 * b) + "X", a);
+                break;
+            case Trace.EV_INDEXED:
+                detail = String.format("postbyte=%02X adresse=%04X", a, b);
+                break;
+            case Trace.EV_INDIRECT:
+                detail = String.format("pointeur=%04X adresse=%04X", a, b);
+                break;
+            case Trace.EV_OPERAND:
+                detail = b < 0 ? String.format("valeur=%02X", a) : String.format("valeur=%02X adresse=%04X", a, b);
+                break;
+            case Trace.EV_PUSH_S:
+            case Trace.EV_POP_S:
+                detail = String.format("valeur=%02X S=%04X", a, b);
+                break;
+            case Trace.EV_PUSH_U:
+            case Trace.EV_POP_U:
+                detail = String.format("valeur=%02X U=%04X", a, b);
+                break;
+            case Trace.EV_FLAGS:
+                detail = String.format("type=%d CC=%02X", a, b);
+                break;
+            default:
+                detail = String.format("a=%08X b=%08X", a, b);
+        }
+        return String.format("%8d  %04X  %-10s %-8s %s", index, pc, categoryName, eventName, detail);
+    }
+}